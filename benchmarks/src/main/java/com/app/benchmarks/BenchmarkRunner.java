@@ -0,0 +1,46 @@
+package com.app.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line, but unless told otherwise
+ * every run measures allocations with the gc profiler ({@code gc.alloc.rate.norm} is bytes per operation)
+ * and writes JSON results to jmh-result.json, so runs on two commits can be diffed or fed to a JMH visualizer.
+ *
+ * <p>
+ * Examples:
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar                       # everything
+ *     java -jar benchmarks/target/benchmarks.jar OrderService -rff before.json
+ *     java -jar benchmarks/target/benchmarks.jar -l                    # list benchmarks
+ * </pre>
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (cli.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        new Runner(options.build()).run();
+    }
+}
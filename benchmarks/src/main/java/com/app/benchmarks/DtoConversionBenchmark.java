@@ -0,0 +1,88 @@
+package com.app.benchmarks;
+
+import com.app.model.CartRequest;
+import com.app.model.OrderRequest;
+import com.app.model.PricedCart;
+import com.app.model.ProfileDTO;
+import com.app.model.SessionDTO;
+import com.app.model.User;
+import com.app.model.UserDTO;
+import com.app.service.CartPricer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DTO conversions done for every cart evaluation and order, from the incoming OrderRequest
+ * to the documents sent to Talon.One.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoConversionBenchmark {
+
+    @Param({"5", "50"})
+    int items;
+
+    private OrderRequest order;
+    private CartRequest cart;
+    private CartRequest pricedCart;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        order = Fixtures.orderRequest(items);
+        cart = order.toCartRequest();
+        pricedCart = order.toCartRequest();
+        pricedCart.setPricing(CartPricer.price(pricedCart.getItems()));
+        user = Fixtures.user();
+    }
+
+    @Benchmark
+    public CartRequest orderToCartRequest() {
+        return order.toCartRequest();
+    }
+
+    @Benchmark
+    public PricedCart priceCart() {
+        return CartPricer.price(cart.getItems());
+    }
+
+    @Benchmark
+    public SessionDTO sessionFromCartRequest() {
+        return SessionDTO.fromCartRequest(cart);
+    }
+
+    @Benchmark
+    public SessionDTO sessionFromPricedCartRequest() {
+        return SessionDTO.fromCartRequest(pricedCart);
+    }
+
+    @Benchmark
+    public ProfileDTO profileFromCartRequest() {
+        return ProfileDTO.fromCartRequest(cart);
+    }
+
+    @Benchmark
+    public ProfileDTO profileFromUser() {
+        return ProfileDTO.fromUser(user);
+    }
+
+    @Benchmark
+    public UserDTO userDtoFromEntity() {
+        return UserDTO.fromEntity(user);
+    }
+}
@@ -0,0 +1,193 @@
+package com.app.benchmarks;
+
+import com.app.benchmarks.load.Latency;
+import com.app.benchmarks.load.TalonOneSimulator;
+import com.app.config.ExecutorFactory;
+import com.app.model.Order;
+import com.app.model.OrderRequest;
+import com.app.model.User;
+import com.app.repository.LoyaltyConfirmationRepository;
+import com.app.repository.OrderRepository;
+import com.app.repository.UserRepository;
+import com.app.rules.CompiledRuleset;
+import com.app.rules.LocalRulesEngine;
+import com.app.rules.RulesMode;
+import com.app.service.CartPricer;
+import com.app.service.CheckoutObservations;
+import com.app.service.OrderService;
+import com.app.service.ProfileSyncMode;
+import com.app.service.ProfileSyncService;
+import com.app.service.RewardsService;
+import com.app.service.SessionEvaluationCache;
+import com.app.service.UserService;
+import com.app.talonone.TalonOneClient;
+import com.app.talonone.TalonOneCodec;
+import com.app.talonone.TalonOneEndpoint;
+import com.app.talonone.TalonOneResilience;
+import com.app.talonone.TalonOneTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time to complete a burst of checkouts ({@link OrderService#placeOrder}) submitted at once to the request
+ * executor from {@link ExecutorFactory#blocking}: a pool of 32 platform threads, or a virtual thread per order.
+ * Every order pushes its user's profile and evaluates a session through the real pooled transport, resilience
+ * and client against a {@link TalonOneSimulator} answering in 10 ms; repositories are stubbed in memory.
+ *
+ * <p>
+ * Each order belongs to a new user, so evaluations are neither coalesced nor skipped as unchanged, and the
+ * session cache is disabled. The connection pools hold 64 connections while the bulkheads admit the whole
+ * burst, so the virtual variant queues on the pool lease - the wait that pins its carrier on httpclient5 5.2.
+ * A burst that fell back to no discounts fails the iteration rather than reporting a fast time.
+ * </p>
+ *
+ * <p>
+ * Virtual threads need a Java 21 runtime; on older JVMs the factory falls back to the platform pool and
+ * both variants measure the same executor.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ExecutorBenchmark {
+
+    private static final int POOL_SIZE = 64;
+
+    @Param({"false", "true"})
+    boolean virtual;
+
+    @Param({"256", "1024"})
+    int orders;
+
+    private final AtomicLong userIds = new AtomicLong(Fixtures.USER_ID);
+    private MeterRegistry meterRegistry;
+    private TalonOneSimulator simulator;
+    private TalonOneTransport transport;
+    private ExecutorService requestExecutor;
+    private ExecutorService talonOneExecutor;
+    private OrderService orderService;
+    private OrderRequest template;
+
+    @Setup
+    public void setUp() throws IOException {
+        TalonOneSimulator.Behaviour remote = new TalonOneSimulator.Behaviour(new Latency(10, 10), 0);
+        simulator = new TalonOneSimulator(Map.of(TalonOneEndpoint.PROFILES, remote, TalonOneEndpoint.SESSIONS, remote),
+                CompiledRuleset.compile(Fixtures.ruleset(10)));
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.threads.virtual.enabled", String.valueOf(virtual));
+        for (TalonOneEndpoint endpoint : TalonOneEndpoint.values()) {
+            properties.put("talonone.http.pool." + endpoint.key() + ".max-connections", POOL_SIZE);
+            properties.put("talonone.resilience." + endpoint.key() + ".max-concurrent-calls", orders);
+        }
+        StandardEnvironment environment = Fixtures.environment(properties);
+        ExecutorFactory executorFactory = new ExecutorFactory(environment);
+
+        meterRegistry = new SimpleMeterRegistry();
+        // A lease timeout long enough for the whole burst to drain through the pool
+        transport = new TalonOneTransport(environment, meterRegistry, ObservationRegistry.NOOP, 2000, 5000, 30000, 30000);
+        TalonOneClient client = new TalonOneClient(transport,
+                new TalonOneResilience(environment, meterRegistry, 50, 2000, 50, 20, 30),
+                new TalonOneCodec(Fixtures.objectMapper()));
+        Fixtures.inject(client, "baseUrl", simulator.baseUrl());
+        Fixtures.inject(client, "apiKey", "benchmark");
+
+        AtomicLong ids = new AtomicLong();
+        UserRepository userRepository = Fixtures.stub(UserRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.of(user((Long) args[0]));
+            case "incrementOrderStats" -> 1;
+            default -> throw new UnsupportedOperationException(method);
+        });
+        OrderRepository orderRepository = Fixtures.stub(OrderRepository.class, (method, args) -> {
+            if (!method.equals("save")) {
+                throw new UnsupportedOperationException(method);
+            }
+            Order order = (Order) args[0];
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+        LoyaltyConfirmationRepository loyaltyConfirmationRepository = Fixtures.stub(
+                LoyaltyConfirmationRepository.class, (method, args) -> args[0]);
+
+        UserService userService = new UserService(userRepository, meterRegistry, 10, 100_000);
+        CartPricer cartPricer = new CartPricer(meterRegistry);
+        talonOneExecutor = executorFactory.blocking("talonone-", 32);
+        RewardsService rewardsService = new RewardsService(client, null,
+                new ProfileSyncService(client, null, meterRegistry, 100_000, 30),
+                new SessionEvaluationCache(meterRegistry, false, 30, 64 * 1024 * 1024),
+                userService, talonOneExecutor, new LocalRulesEngine(meterRegistry), cartPricer, meterRegistry);
+        Fixtures.inject(rewardsService, "profileSyncMode", ProfileSyncMode.SKIP_UNCHANGED);
+        Fixtures.inject(rewardsService, "rulesMode", RulesMode.OFF);
+
+        orderService = new OrderService(userService, rewardsService, orderRepository, loyaltyConfirmationRepository,
+                cartPricer, new CheckoutObservations(ObservationRegistry.create()), Fixtures.transactionTemplate());
+        requestExecutor = executorFactory.blocking("request-", 32);
+        template = Fixtures.orderRequest(5);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkNoFallbacks() {
+        double fallbacks = meterRegistry.find("rewards.evaluate.fallback").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+        if (fallbacks > 0) {
+            throw new IllegalStateException(fallbacks + " checkouts fell back to no discounts");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        requestExecutor.shutdownNow();
+        talonOneExecutor.shutdownNow();
+        transport.destroy();
+        simulator.close();
+    }
+
+    @Benchmark
+    public void checkouts() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[orders];
+        for (int i = 0; i < orders; i++) {
+            OrderRequest request = OrderRequest.builder()
+                    .userId(userIds.incrementAndGet())
+                    .items(template.getItems())
+                    .total(template.getTotal())
+                    .build();
+            futures[i] = CompletableFuture.supplyAsync(() -> orderService.placeOrder(request), requestExecutor);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private static User user(Long id) {
+        User user = Fixtures.user();
+        user.setId(id);
+        return user;
+    }
+}
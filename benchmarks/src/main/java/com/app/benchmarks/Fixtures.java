@@ -0,0 +1,286 @@
+package com.app.benchmarks;
+
+import com.app.AppApplication;
+import com.app.config.ExecutorFactory;
+import com.app.model.DiscountDTO;
+import com.app.model.ItemDTO;
+import com.app.model.OrderRequest;
+import com.app.model.RewardsResponse;
+import com.app.model.RuleDTO;
+import com.app.model.RulesetDTO;
+import com.app.model.User;
+import com.app.talonone.TalonOneAsyncClient;
+import com.app.talonone.TalonOneClient;
+import com.app.talonone.TalonOneCodec;
+import com.app.talonone.TalonOneResilience;
+import com.app.talonone.TalonOneTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Deterministic test data and stubs shared by the benchmarks. Every generator is seeded,
+ * so two runs (or two commits) measure the same carts.
+ */
+final class Fixtures {
+
+    static final long USER_ID = 42L;
+
+    private Fixtures() {
+    }
+
+    /**
+     * The sku of the n-th product of the catalogue.
+     */
+    static String sku(int n) {
+        return String.format("SKU-%06d", n);
+    }
+
+    /**
+     * A cart of {@code size} lines drawn from a catalogue of {@code catalogue} products.
+     */
+    static List<ItemDTO> items(int size, int catalogue, long seed) {
+        Random random = new Random(seed);
+        List<ItemDTO> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int product = random.nextInt(catalogue);
+            items.add(ItemDTO.builder()
+                    .sku(sku(product))
+                    .name("Product " + product)
+                    .quantity(1 + random.nextInt(3))
+                    .price(100L + random.nextInt(9_900))
+                    .build());
+        }
+        return items;
+    }
+
+    /**
+     * @return the sum of price times quantity of the items, i.e. the total the client declares
+     */
+    static long total(List<ItemDTO> items) {
+        long total = 0;
+        for (ItemDTO item : items) {
+            total += item.getPrice() * item.getQuantity();
+        }
+        return total;
+    }
+
+    static OrderRequest orderRequest(int size) {
+        List<ItemDTO> items = items(size, 1_000, size);
+        return OrderRequest.builder().userId(USER_ID).items(items).total(total(items)).build();
+    }
+
+    static User user() {
+        return User.builder()
+                .id(USER_ID)
+                .email("jane.doe@example.com")
+                .name("Jane Doe")
+                .totalOrders(17)
+                .totalSpent(123_456L)
+                .loyaltyPoints(2_500)
+                .build();
+    }
+
+    /**
+     * A typical Talon.One evaluation: two discounts and redeemed loyalty points.
+     */
+    static RewardsResponse rewards() {
+        List<DiscountDTO> discounts = new ArrayList<>();
+        discounts.add(DiscountDTO.builder().code("WELCOME10").description("10% off your order").amount(1_250L).build());
+        discounts.add(DiscountDTO.builder().code("LOYALTY").description("Loyalty points redeemed").amount(500L).build());
+        return RewardsResponse.builder()
+                .totalDiscount(1_750L)
+                .discounts(discounts)
+                .loyaltyUsed(true)
+                .loyaltyPointsUsed(500)
+                .loyaltyPointsRemaining(2_000)
+                .build();
+    }
+
+    /**
+     * A ruleset of {@code promotions} sku promotions over a catalogue of the same size,
+     * plus a few cart-wide rules and a loyalty redemption.
+     */
+    static RulesetDTO ruleset(int promotions) {
+        Random random = new Random(promotions);
+        List<RuleDTO> rules = new ArrayList<>(promotions + 4);
+        for (int i = 0; i < promotions; i++) {
+            boolean percentage = random.nextBoolean();
+            rules.add(RuleDTO.builder()
+                    .code("SKU-PROMO-" + i)
+                    .type(percentage ? RuleDTO.Type.SKU_PERCENTAGE : RuleDTO.Type.SKU_FIXED)
+                    .sku(sku(random.nextInt(promotions)))
+                    .value(percentage ? 500 + random.nextInt(2_000) : 50 + random.nextInt(200))
+                    .priority(random.nextInt(100))
+                    .build());
+        }
+        rules.add(RuleDTO.builder().code("CART-10").type(RuleDTO.Type.CART_PERCENTAGE)
+                .value(1_000).minCartTotal(10_000).priority(10).build());
+        rules.add(RuleDTO.builder().code("CART-5-OFF").type(RuleDTO.Type.CART_FIXED)
+                .value(500).minCartTotal(5_000).priority(20).build());
+        rules.add(RuleDTO.builder().code("BIG-SPENDER").type(RuleDTO.Type.CART_PERCENTAGE)
+                .value(1_500).minCartTotal(100_000).priority(5).build());
+        rules.add(RuleDTO.builder().code("LOYALTY").type(RuleDTO.Type.LOYALTY_REDEMPTION)
+                .value(1).maxPoints(1_000).priority(200).build());
+        return RulesetDTO.builder().version("bench-" + promotions).rules(rules).build();
+    }
+
+    /**
+     * The ObjectMapper as Spring Boot configures it for the web layer.
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * Implements a repository (or any other interface) by answering every call with
+     * {@code answers.apply(methodName, args)}. Cheaper per call than a mocking framework,
+     * so the stubs barely show up in allocation profiles.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            return answers.apply(method.getName(), args);
+        });
+    }
+
+    /**
+     * A transaction template whose transactions do nothing beyond running their synchronizations,
+     * for services exercised on stubbed repositories.
+     */
+    static TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        });
+    }
+
+    /**
+     * A Spring environment holding the given properties, e.g. talonone.* settings or spring.threads.virtual.enabled.
+     */
+    static StandardEnvironment environment(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        return environment;
+    }
+
+    /**
+     * The circuit breakers and bulkheads with the application's defaults, which the environment can
+     * override with the same talonone.resilience.* properties as the application.
+     */
+    static TalonOneResilience resilience(Environment environment) {
+        return new TalonOneResilience(environment, new SimpleMeterRegistry(),
+                environment.getProperty("talonone.resilience.failure-rate-threshold", Float.class, 50f),
+                environment.getProperty("talonone.resilience.slow-call-threshold-ms", Long.class, 2000L),
+                50, 20, 30);
+    }
+
+    /**
+     * The blocking client calling baseUrl through the given transport, wired as in the application.
+     */
+    static TalonOneClient talonOneClient(String baseUrl, TalonOneTransport transport, Environment environment) {
+        TalonOneClient client = new TalonOneClient(transport, resilience(environment), new TalonOneCodec(objectMapper()));
+        inject(client, "baseUrl", baseUrl);
+        inject(client, "apiKey", "benchmark");
+        return client;
+    }
+
+    /**
+     * The pooled transport with the application's default pool sizes and timeouts.
+     */
+    static TalonOneTransport talonOneTransport(Environment environment) {
+        return new TalonOneTransport(environment, new SimpleMeterRegistry(), ObservationRegistry.NOOP,
+                2000, 5000, 1000, 30000);
+    }
+
+    /**
+     * The non-blocking client calling baseUrl, with the given number of callback threads.
+     */
+    static TalonOneAsyncClient talonOneAsyncClient(String baseUrl, Environment environment, int threads) {
+        TalonOneAsyncClient client = new TalonOneAsyncClient(new TalonOneCodec(objectMapper()), resilience(environment),
+                new ExecutorFactory(environment), new SimpleMeterRegistry(), 2000, 5000, threads);
+        inject(client, "baseUrl", baseUrl);
+        inject(client, "apiKey", "benchmark");
+        return client;
+    }
+
+    /**
+     * Starts the application without a web server on its own in-memory H2 database, for benchmarks that
+     * measure the persistence layer. Talon.One is never called unless talonone.base-url is overridden.
+     * @param database the H2 database name, distinct per parameter combination
+     * @param properties settings overriding the defaults
+     */
+    static ConfigurableApplicationContext application(String database, Map<String, Object> properties) {
+        Map<String, Object> defaults = new LinkedHashMap<>();
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        defaults.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        defaults.put("spring.jpa.open-in-view", false);
+        defaults.put("logging.level.root", "WARN");
+        defaults.put("talonone.base-url", "http://localhost:9");
+        defaults.put("talonone.api-key", "benchmark");
+        defaults.put("talonone.loyalty-outbox.poll-interval-ms", 3_600_000);
+        defaults.putAll(properties);
+        return new SpringApplicationBuilder(AppApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(defaults)
+                .run();
+    }
+
+    /**
+     * Sets a field that Spring would inject with @Value.
+     */
+    static void inject(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getName(), ex);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.app.benchmarks;
+
+import com.app.config.StatementCounter;
+import com.app.service.CheckoutObservations;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the checkout instrumentation: one {@code checkout.stage} observation with and without
+ * a meter handler, and counting the statements of a request with {@link StatementCounter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationBenchmark {
+
+    private static final String SQL = "update users set total_orders=total_orders+?, "
+            + "total_spent_cents=total_spent_cents+? where id=?";
+
+    @Param({"false", "true"})
+    boolean metered;
+
+    private CheckoutObservations observations;
+    private StatementCounter statementCounter;
+
+    @Setup
+    public void setUp() {
+        ObservationRegistry registry = ObservationRegistry.create();
+        if (metered) {
+            registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(new SimpleMeterRegistry()));
+        }
+        observations = new CheckoutObservations(registry);
+        statementCounter = new StatementCounter();
+    }
+
+    @Benchmark
+    public Object unobservedStage() {
+        return SQL.length();
+    }
+
+    @Benchmark
+    public Object observedStage() {
+        return observations.stage("pricing", SQL::length);
+    }
+
+    @Benchmark
+    public int countedRequest() {
+        StatementCounter.start();
+        for (int i = 0; i < 6; i++) {
+            statementCounter.inspect(SQL);
+        }
+        return StatementCounter.stop();
+    }
+}
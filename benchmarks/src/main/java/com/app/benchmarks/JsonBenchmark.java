@@ -0,0 +1,87 @@
+package com.app.benchmarks;
+
+import com.app.model.Order;
+import com.app.model.OrderRequest;
+import com.app.model.OrderResponse;
+import com.app.model.RewardsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the checkout documents with the ObjectMapper the web layer uses:
+ * the Talon.One evaluation read on every cart, the order request body and the order response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"5", "50"})
+    int items;
+
+    private ObjectWriter writer;
+    private ObjectReader rewardsReader;
+    private ObjectReader orderRequestReader;
+
+    private RewardsResponse rewards;
+    private byte[] rewardsJson;
+    private byte[] orderRequestJson;
+    private OrderResponse orderResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        writer = objectMapper.writer();
+        rewardsReader = objectMapper.readerFor(RewardsResponse.class);
+        orderRequestReader = objectMapper.readerFor(OrderRequest.class);
+
+        rewards = Fixtures.rewards();
+        rewardsJson = writer.writeValueAsBytes(rewards);
+        OrderRequest request = Fixtures.orderRequest(items);
+        orderRequestJson = writer.writeValueAsBytes(request);
+
+        Order order = Order.placed(Fixtures.user(), request.getItems(),
+                request.getTotal() - rewards.getTotalDiscount(), rewards.getTotalDiscount());
+        order.setId(1L);
+        orderResponse = OrderResponse.fromPlacedOrder(order, rewards);
+        writer.writeValueAsBytes(orderResponse);
+    }
+
+    @Benchmark
+    public byte[] writeRewardsResponse() throws IOException {
+        return writer.writeValueAsBytes(rewards);
+    }
+
+    @Benchmark
+    public RewardsResponse readRewardsResponse() throws IOException {
+        return rewardsReader.readValue(rewardsJson);
+    }
+
+    @Benchmark
+    public OrderRequest readOrderRequest() throws IOException {
+        return orderRequestReader.readValue(orderRequestJson);
+    }
+
+    @Benchmark
+    public byte[] writeOrderResponse() throws IOException {
+        return writer.writeValueAsBytes(orderResponse);
+    }
+}
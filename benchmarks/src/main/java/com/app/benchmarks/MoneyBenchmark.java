@@ -0,0 +1,135 @@
+package com.app.benchmarks;
+
+import com.app.model.ItemDTO;
+import com.app.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money as long cents ({@link Money}) against the double amounts it replaced and BigDecimal:
+ * summing a cart, applying a percentage, and parsing and formatting a JSON amount.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final String AMOUNT = "1234.56";
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private long[] cents;
+    private double[] doubles;
+    private BigDecimal[] decimals;
+    private int[] quantities;
+
+    private long amountCents;
+    private double amountDouble;
+    private BigDecimal amountDecimal;
+
+    @Setup
+    public void setUp() {
+        List<ItemDTO> items = Fixtures.items(20, 1_000, 3);
+        cents = new long[items.size()];
+        doubles = new double[items.size()];
+        decimals = new BigDecimal[items.size()];
+        quantities = new int[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            cents[i] = items.get(i).getPrice();
+            doubles[i] = Money.toDouble(cents[i]);
+            decimals[i] = BigDecimal.valueOf(cents[i], Money.FRACTION_DIGITS);
+            quantities[i] = items.get(i).getQuantity();
+        }
+        amountCents = Money.parse(AMOUNT);
+        amountDouble = Double.parseDouble(AMOUNT);
+        amountDecimal = new BigDecimal(AMOUNT);
+    }
+
+    @Benchmark
+    public long sumCents() {
+        long total = 0;
+        for (int i = 0; i < cents.length; i++) {
+            total = Math.addExact(total, Money.times(cents[i], quantities[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double sumDouble() {
+        double total = 0;
+        for (int i = 0; i < doubles.length; i++) {
+            total += doubles[i] * quantities[i];
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < decimals.length; i++) {
+            total = total.add(decimals[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long percentageCents() {
+        return Money.percentage(amountCents, 1_250);
+    }
+
+    @Benchmark
+    public double percentageDouble() {
+        return Math.round(amountDouble * 12.5) / 100.0;
+    }
+
+    @Benchmark
+    public BigDecimal percentageBigDecimal() {
+        return amountDecimal.multiply(BigDecimal.valueOf(1_250, 2))
+                .divide(HUNDRED, Money.FRACTION_DIGITS, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long parseCents() {
+        return Money.parse(AMOUNT);
+    }
+
+    @Benchmark
+    public double parseDouble() {
+        return Double.parseDouble(AMOUNT);
+    }
+
+    @Benchmark
+    public BigDecimal parseBigDecimal() {
+        return new BigDecimal(AMOUNT);
+    }
+
+    @Benchmark
+    public String formatCents() {
+        return Money.format(amountCents);
+    }
+
+    @Benchmark
+    public String formatDouble() {
+        return Double.toString(amountDouble);
+    }
+
+    @Benchmark
+    public String formatBigDecimal() {
+        return amountDecimal.toPlainString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.app.benchmarks;
+
+import com.app.config.StatementCounter;
+import com.app.model.ItemDTO;
+import com.app.model.Order;
+import com.app.model.User;
+import com.app.repository.OrderRepository;
+import com.app.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of persisting an order with 1, 10 and 100 line items through {@link OrderRepository#save}
+ * on an in-memory H2 database, with JDBC batching (app.jpa.batch-size=50, the default) and without
+ * (batch size 1, one round trip per row as with the former IDENTITY ids). The statements sent per order
+ * are printed at setup.
+ *
+ * <p>
+ * H2 runs in process, so a round trip costs far less than over the network to a real database;
+ * the difference measured here is a lower bound.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderInsertBenchmark {
+
+    @Param({"1", "10", "100"})
+    int items;
+
+    @Param({"1", "50"})
+    int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private User user;
+    private List<ItemDTO> lines;
+    private long total;
+
+    @Setup
+    public void setUp() {
+        context = Fixtures.application("orders-" + items + "-" + batchSize, Map.of("app.jpa.batch-size", batchSize));
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        User customer = Fixtures.user();
+        customer.setId(null);
+        user = context.getBean(UserRepository.class).save(customer);
+        lines = Fixtures.items(items, 1_000, items);
+        total = Fixtures.total(lines);
+
+        StatementCounter.start();
+        insertOrder();
+        System.out.printf("%n%d lines, batch size %d: %d statements per order%n", items, batchSize, StatementCounter.stop());
+    }
+
+    /**
+     * Keeps the tables small so every iteration inserts into a database of the same size.
+     */
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from orders");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long insertOrder() {
+        return transactionTemplate.execute(status -> orderRepository.save(Order.placed(user, lines, total, 0)).getId());
+    }
+}
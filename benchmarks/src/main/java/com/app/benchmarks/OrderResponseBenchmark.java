@@ -0,0 +1,107 @@
+package com.app.benchmarks;
+
+import com.app.model.Order;
+import com.app.model.OrderRequest;
+import com.app.model.OrderResponse;
+import com.app.model.RewardsResponse;
+import com.app.model.User;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The POST /orders response as the order entity graph, as it was serialized before, versus the flat
+ * {@link OrderResponse} view, plain and gzipped as the server compresses large responses.
+ * Payload sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderResponseBenchmark {
+
+    @Param({"5", "200"})
+    int items;
+
+    private ObjectWriter writer;
+    private EntityOrderResponse entityResponse;
+    private Order order;
+    private RewardsResponse rewards;
+
+    /**
+     * The former response shape, embedding the entities.
+     */
+    record EntityOrderResponse(Order order, RewardsResponse rewards) {
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        writer = Fixtures.objectMapper().writer();
+        rewards = Fixtures.rewards();
+        OrderRequest request = Fixtures.orderRequest(items);
+        User user = Fixtures.user();
+        order = Order.placed(user, request.getItems(),
+                request.getTotal() - rewards.getTotalDiscount(), rewards.getTotalDiscount());
+        order.setId(1L);
+        long itemId = 1;
+        for (var item : order.getItems()) {
+            item.setId(itemId++);
+        }
+
+        // The entity graph only serializes with its back-references cut; in the application the
+        // user's orders were a lazy collection that failed outside the session
+        Order detached = Order.placed(User.builder()
+                        .id(user.getId()).email(user.getEmail()).name(user.getName())
+                        .totalOrders(user.getTotalOrders()).totalSpent(user.getTotalSpent())
+                        .loyaltyPoints(user.getLoyaltyPoints()).build(),
+                request.getItems(), order.getTotal(), order.getDiscount());
+        detached.setId(order.getId());
+        detached.setCreatedAt(order.getCreatedAt());
+        for (int i = 0; i < detached.getItems().size(); i++) {
+            detached.getItems().get(i).setId(order.getItems().get(i).getId());
+            detached.getItems().get(i).setOrder(null);
+        }
+        entityResponse = new EntityOrderResponse(detached, rewards);
+
+        System.out.printf("%n%d lines: entity %d bytes, view %d bytes, view gzipped %d bytes%n", items,
+                writeEntityResponse().length, writeViewResponse().length, writeViewResponseGzipped().length);
+    }
+
+    @Benchmark
+    public byte[] writeEntityResponse() throws IOException {
+        return writer.writeValueAsBytes(entityResponse);
+    }
+
+    /**
+     * Includes building the view from the placed order, as the service does.
+     */
+    @Benchmark
+    public byte[] writeViewResponse() throws IOException {
+        return writer.writeValueAsBytes(OrderResponse.fromPlacedOrder(order, rewards));
+    }
+
+    @Benchmark
+    public byte[] writeViewResponseGzipped() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            writer.writeValue(gzip, OrderResponse.fromPlacedOrder(order, rewards));
+        }
+        return out.toByteArray();
+    }
+}
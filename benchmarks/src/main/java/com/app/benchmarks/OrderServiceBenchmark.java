@@ -0,0 +1,138 @@
+package com.app.benchmarks;
+
+import com.app.config.ExecutorFactory;
+import com.app.model.Order;
+import com.app.model.OrderRequest;
+import com.app.model.OrderResponse;
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.model.User;
+import com.app.repository.LoyaltyConfirmationRepository;
+import com.app.repository.OrderRepository;
+import com.app.repository.UserRepository;
+import com.app.rules.LocalRulesEngine;
+import com.app.rules.RulesMode;
+import com.app.service.CartPricer;
+import com.app.service.CheckoutObservations;
+import com.app.service.OrderService;
+import com.app.service.ProfileSyncMode;
+import com.app.service.ProfileSyncService;
+import com.app.service.RewardsService;
+import com.app.service.SessionEvaluationCache;
+import com.app.service.UserService;
+import com.app.talonone.TalonOneClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link OrderService#placeOrder} end to end on the real services, with the repositories and the
+ * Talon.One client stubbed in memory. Measures the CPU and allocation cost of the checkout itself:
+ * pricing, DTO conversion, profile sync suppression, rewards, building the order and the outbox entry.
+ * Database and network latency are deliberately excluded; the session cache is disabled so every
+ * order is evaluated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"5", "50"})
+    int items;
+
+    private OrderService orderService;
+    private ExecutorService talonOneExecutor;
+    private OrderRequest request;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        User user = Fixtures.user();
+        AtomicLong ids = new AtomicLong();
+
+        UserRepository userRepository = Fixtures.stub(UserRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.of(user);
+            case "incrementOrderStats" -> 1;
+            default -> throw new UnsupportedOperationException(method);
+        });
+        OrderRepository orderRepository = Fixtures.stub(OrderRepository.class, (method, args) -> {
+            if (!method.equals("save")) {
+                throw new UnsupportedOperationException(method);
+            }
+            Order order = (Order) args[0];
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+        LoyaltyConfirmationRepository loyaltyConfirmationRepository = Fixtures.stub(
+                LoyaltyConfirmationRepository.class, (method, args) -> args[0]);
+
+        UserService userService = new UserService(userRepository, meterRegistry, 10, 100_000);
+        CartPricer cartPricer = new CartPricer(meterRegistry);
+        talonOneExecutor = new ExecutorFactory(new StandardEnvironment()).blocking("talonone-", 4);
+        RewardsService rewardsService = new RewardsService(new StubTalonOneClient(), null,
+                new ProfileSyncService(new StubTalonOneClient(), null, meterRegistry, 100_000, 30),
+                new SessionEvaluationCache(meterRegistry, false, 30, 64 * 1024 * 1024),
+                userService, talonOneExecutor, new LocalRulesEngine(meterRegistry), cartPricer, meterRegistry);
+        Fixtures.inject(rewardsService, "profileSyncMode", ProfileSyncMode.SKIP_UNCHANGED);
+        Fixtures.inject(rewardsService, "rulesMode", RulesMode.OFF);
+
+        orderService = new OrderService(userService, rewardsService, orderRepository, loyaltyConfirmationRepository,
+                cartPricer, new CheckoutObservations(ObservationRegistry.create()), Fixtures.transactionTemplate());
+        request = Fixtures.orderRequest(items);
+    }
+
+    @TearDown
+    public void tearDown() {
+        talonOneExecutor.shutdown();
+    }
+
+    @Benchmark
+    public OrderResponse placeOrder() {
+        return orderService.placeOrder(request);
+    }
+
+    /**
+     * Answers like Talon.One without leaving the JVM.
+     */
+    static final class StubTalonOneClient extends TalonOneClient {
+
+        StubTalonOneClient() {
+            super(null, null, null);
+        }
+
+        @Override
+        public void updateProfile(String userId, ProfileDTO dto) {
+        }
+
+        @Override
+        public RewardsResponse evaluateSession(SessionDTO dto) {
+            return Fixtures.rewards();
+        }
+
+        @Override
+        public void confirmLoyalty(String userId, long totalAmount, String idempotencyKey) {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.app.benchmarks;
+
+import com.app.model.ItemDTO;
+import com.app.model.RewardsResponse;
+import com.app.rules.CompiledRuleset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local rules evaluation against rulesets of growing size. With the sku index the cost should follow
+ * the number of cart lines, not the number of promotions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesEngineBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    int promotions;
+
+    @Param({"1", "20", "200"})
+    int items;
+
+    private CompiledRuleset ruleset;
+    private List<ItemDTO> cart;
+    private long cartTotal;
+
+    @Setup
+    public void setUp() {
+        ruleset = CompiledRuleset.compile(Fixtures.ruleset(promotions));
+        // Carts are drawn from the promoted catalogue, so most lines match a promotion
+        cart = Fixtures.items(items, promotions, 7);
+        cartTotal = Fixtures.total(cart);
+    }
+
+    @Benchmark
+    public RewardsResponse evaluate() {
+        return ruleset.evaluate(cart, cartTotal, 2_500);
+    }
+}
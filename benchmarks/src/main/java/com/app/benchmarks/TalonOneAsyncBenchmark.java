@@ -0,0 +1,116 @@
+package com.app.benchmarks;
+
+import com.app.benchmarks.load.Latency;
+import com.app.benchmarks.load.TalonOneSimulator;
+import com.app.model.OrderRequest;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.rules.CompiledRuleset;
+import com.app.talonone.TalonOneAsyncClient;
+import com.app.talonone.TalonOneClient;
+import com.app.talonone.TalonOneEndpoint;
+import com.app.talonone.TalonOneTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to complete a burst of concurrent session evaluations against a local {@link TalonOneSimulator}
+ * answering after 200 ms: the blocking {@link TalonOneClient} on a pool of 32 request threads versus
+ * {@link TalonOneAsyncClient} with its 4 callback threads and every evaluation in flight at once.
+ * The blocking client needs a thread per outstanding call, so a burst takes about
+ * {@code inFlight / 32 * 200 ms}; the async client takes one round trip plus the CPU time of the burst,
+ * which on a small machine is mostly the simulator's.
+ *
+ * <p>
+ * The sessions bulkhead is sized to the burst so it does not reject the async calls, and calls only count as slow
+ * after a minute so a CPU-bound burst does not open the circuit. The blocking client keeps its default pool and
+ * bulkhead, which 32 threads never exceed.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 4)
+@Fork(1)
+public class TalonOneAsyncBenchmark {
+
+    private static final int REQUEST_THREADS = 32;
+
+    @Param({"100", "1000"})
+    int inFlight;
+
+    private TalonOneSimulator simulator;
+    private TalonOneTransport transport;
+    private TalonOneClient client;
+    private TalonOneAsyncClient asyncClient;
+    private ExecutorService requestThreads;
+    private SessionDTO session;
+
+    @Setup
+    public void setUp() throws IOException {
+        simulator = new TalonOneSimulator(
+                Map.of(TalonOneEndpoint.SESSIONS, new TalonOneSimulator.Behaviour(new Latency(200, 200), 0)),
+                CompiledRuleset.compile(Fixtures.ruleset(10)));
+        StandardEnvironment environment = Fixtures.environment(Map.of(
+                "talonone.resilience.sessions.max-concurrent-calls", inFlight,
+                "talonone.resilience.slow-call-threshold-ms", 60_000));
+        transport = Fixtures.talonOneTransport(Fixtures.environment(Map.of()));
+        client = Fixtures.talonOneClient(simulator.baseUrl(), transport, Fixtures.environment(Map.of()));
+        asyncClient = Fixtures.talonOneAsyncClient(simulator.baseUrl(), environment, 4);
+        requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+
+        OrderRequest request = Fixtures.orderRequest(5);
+        session = SessionDTO.builder()
+                .integrationId(request.getUserId().toString())
+                .cartItems(request.getItems())
+                .cartTotal(request.getTotal())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        requestThreads.shutdownNow();
+        asyncClient.destroy();
+        transport.destroy();
+        simulator.close();
+    }
+
+    @Benchmark
+    public RewardsResponse blocking() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[inFlight];
+        for (int i = 0; i < inFlight; i++) {
+            futures[i] = CompletableFuture.supplyAsync(() -> client.evaluateSession(session), requestThreads);
+        }
+        CompletableFuture.allOf(futures).join();
+        return (RewardsResponse) futures[0].join();
+    }
+
+    @Benchmark
+    public RewardsResponse async() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[inFlight];
+        for (int i = 0; i < inFlight; i++) {
+            futures[i] = asyncClient.evaluateSession(session);
+        }
+        CompletableFuture.allOf(futures).join();
+        return (RewardsResponse) futures[0].join();
+    }
+}
@@ -0,0 +1,170 @@
+package com.app.benchmarks;
+
+import com.app.model.OrderRequest;
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.talonone.TalonOneCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Talon.One request and response bodies written and read by RestTemplate's default Jackson message converter
+ * versus {@link TalonOneCodec}, both on in-memory HTTP messages so only the (de)serialization is measured.
+ * Setup checks that both produce the same bytes and read the same rewards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TalonOneCodecBenchmark {
+
+    @Param({"5", "200"})
+    int items;
+
+    private MappingJackson2HttpMessageConverter converter;
+    private TalonOneCodec codec;
+
+    private SessionDTO session;
+    private ProfileDTO profile;
+    private byte[] rewardsJson;
+    private final OutputMessage output = new OutputMessage();
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        converter = new MappingJackson2HttpMessageConverter(objectMapper);
+        codec = new TalonOneCodec(objectMapper);
+
+        OrderRequest request = Fixtures.orderRequest(items);
+        session = SessionDTO.builder()
+                .integrationId(request.getUserId().toString())
+                .cartItems(request.getItems())
+                .cartTotal(request.getTotal())
+                .build();
+        profile = ProfileDTO.fromUser(Fixtures.user());
+        RewardsResponse rewards = Fixtures.rewards();
+        // A discount per line, as a cart-wide promotion would grant
+        rewards.setDiscounts(new ArrayList<>(rewards.getDiscounts()));
+        for (int i = rewards.getDiscounts().size(); i < items; i++) {
+            rewards.getDiscounts().add(rewards.getDiscounts().get(i % 2));
+        }
+        rewardsJson = objectMapper.writeValueAsBytes(rewards);
+
+        check("session", converterWriteSession(), codecWriteSession());
+        check("profile", converterWriteProfile(), codecWriteProfile());
+        if (!converterReadRewards().equals(codecReadRewards())) {
+            throw new IllegalStateException("Codec and converter read different rewards");
+        }
+    }
+
+    @Benchmark
+    public byte[] converterWriteSession() throws IOException {
+        output.reset();
+        converter.write(session, MediaType.APPLICATION_JSON, output);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] codecWriteSession() throws IOException {
+        output.reset();
+        codec.writeSession(session, output.getBody());
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] converterWriteProfile() throws IOException {
+        output.reset();
+        converter.write(profile, MediaType.APPLICATION_JSON, output);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] codecWriteProfile() throws IOException {
+        output.reset();
+        codec.writeProfile(profile, output.getBody());
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public RewardsResponse converterReadRewards() throws IOException {
+        return (RewardsResponse) converter.read(RewardsResponse.class, new InputMessage(rewardsJson));
+    }
+
+    @Benchmark
+    public RewardsResponse codecReadRewards() throws IOException {
+        return codec.readRewards(new ByteArrayInputStream(rewardsJson));
+    }
+
+    private static void check(String document, byte[] expected, byte[] actual) {
+        if (!Arrays.equals(expected, actual)) {
+            throw new IllegalStateException("Codec wrote a different " + document + ": "
+                    + new String(actual) + " instead of " + new String(expected));
+        }
+    }
+
+    private static final class OutputMessage implements HttpOutputMessage {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(16 * 1024);
+        private HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            body.reset();
+            headers = new HttpHeaders();
+        }
+
+        byte[] toByteArray() {
+            return body.toByteArray();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private record InputMessage(byte[] json) implements HttpInputMessage {
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(json);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.app.benchmarks;
+
+import com.app.benchmarks.load.TalonOneSimulator;
+import com.app.model.OrderRequest;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.rules.CompiledRuleset;
+import com.app.talonone.TalonOneClient;
+import com.app.talonone.TalonOneEndpoint;
+import com.app.talonone.TalonOneTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session evaluations against a local {@link TalonOneSimulator} from 8 concurrent callers, through the pooled
+ * keep-alive {@link TalonOneTransport} versus a transport opening a new connection per request, as a
+ * RestTemplate without a configured pool does once its few default connections are busy.
+ * The simulator answers immediately, so the difference is the connection set-up; over TLS it would be larger.
+ * Sample mode reports the latency percentiles, p0.99 being the one to compare.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(8)
+@Fork(1)
+public class TalonOneTransportBenchmark {
+
+    @Param({"pooled", "unpooled"})
+    String transport;
+
+    private TalonOneSimulator simulator;
+    private TalonOneTransport talonOneTransport;
+    private TalonOneClient client;
+    private SessionDTO session;
+
+    @Setup
+    public void setUp() throws IOException {
+        simulator = new TalonOneSimulator(Map.of(), CompiledRuleset.compile(Fixtures.ruleset(10)));
+        StandardEnvironment environment = Fixtures.environment(Map.of());
+        talonOneTransport = transport.equals("pooled")
+                ? Fixtures.talonOneTransport(environment)
+                : new UnpooledTransport(environment);
+        client = Fixtures.talonOneClient(simulator.baseUrl(), talonOneTransport, environment);
+
+        OrderRequest request = Fixtures.orderRequest(5);
+        session = SessionDTO.builder()
+                .integrationId(request.getUserId().toString())
+                .cartItems(request.getItems())
+                .cartTotal(request.getTotal())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        talonOneTransport.destroy();
+        simulator.close();
+    }
+
+    @Benchmark
+    public RewardsResponse evaluateSession() {
+        return client.evaluateSession(session);
+    }
+
+    /**
+     * Closes every connection after its response, so each request pays for a new TCP connection.
+     */
+    static final class UnpooledTransport extends TalonOneTransport {
+
+        private final CloseableHttpClient httpClient;
+        private final RestTemplate restTemplate;
+
+        UnpooledTransport(Environment environment) {
+            super(environment, new SimpleMeterRegistry(), ObservationRegistry.NOOP, 2000, 5000, 1000, 30000);
+            httpClient = HttpClients.custom()
+                    .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                            .setMaxConnTotal(100)
+                            .setMaxConnPerRoute(100)
+                            .build())
+                    .setConnectionReuseStrategy((request, response, context) -> false)
+                    .build();
+            restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        }
+
+        @Override
+        public RestTemplate restTemplate(TalonOneEndpoint endpoint) {
+            return restTemplate;
+        }
+
+        @Override
+        public void destroy() throws IOException {
+            httpClient.close();
+            super.destroy();
+        }
+    }
+}
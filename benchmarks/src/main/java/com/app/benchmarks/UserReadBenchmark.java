@@ -0,0 +1,91 @@
+package com.app.benchmarks;
+
+import com.app.model.User;
+import com.app.model.UserDTO;
+import com.app.repository.UserRepository;
+import com.app.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GET /users/{id} read path on an in-memory H2 database of 1,000 users: loading the User entity and
+ * copying it into a UserDTO, as the endpoint did before, versus the DTO projection selecting only its
+ * six columns, and the projection behind the read-through cache that {@link UserService#getUserById} serves.
+ * Each call reads a random user. Sample mode reports the latency percentiles; gc.alloc.rate.norm is the
+ * allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserReadBenchmark {
+
+    private static final int USERS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserService userService;
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        // Entries outlive the measurement, so the cached variant is served from memory after warmup
+        context = Fixtures.application("users", Map.of("app.user-cache.ttl-seconds", 3_600));
+        userRepository = context.getBean(UserRepository.class);
+        userService = context.getBean(UserService.class);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder()
+                    .email("user" + i + "@example.com")
+                    .name("User " + i)
+                    .totalOrders(i % 50)
+                    .totalSpent(i * 1_299L)
+                    .loyaltyPoints(i % 5_000)
+                    .build());
+        }
+        ids = userRepository.saveAll(users).stream().mapToLong(User::getId).toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO entity() {
+        return UserDTO.fromEntity(userRepository.findById(randomId()).orElseThrow());
+    }
+
+    @Benchmark
+    public UserDTO projection() {
+        return userRepository.findDtoById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public UserDTO projectionCached() {
+        return userService.getUserById(randomId());
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,52 @@
+package com.app.benchmarks.load;
+
+import java.util.Random;
+
+/**
+ * A log-normal latency distribution described by its median and 99th percentile, the shape
+ * remote API latencies usually have: most calls close to the median and a long tail.
+ * @param medianMs the median latency in milliseconds, 0 for no delay
+ * @param p99Ms the 99th percentile in milliseconds; equal to the median for a fixed delay
+ */
+public record Latency(double medianMs, double p99Ms) {
+
+    public static final Latency NONE = new Latency(0, 0);
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    public Latency {
+        if (medianMs < 0 || p99Ms < medianMs) {
+            throw new IllegalArgumentException("Latency needs 0 <= median <= p99, got " + medianMs + ":" + p99Ms);
+        }
+    }
+
+    /**
+     * Parses "median:p99" or a single fixed value, both in milliseconds, e.g. "25:200" or "10".
+     */
+    public static Latency parse(String spec) {
+        String[] parts = spec.split(":");
+        double median = Double.parseDouble(parts[0].trim());
+        double p99 = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : median;
+        return new Latency(median, p99);
+    }
+
+    /**
+     * @return a latency drawn from the distribution, in microseconds
+     */
+    long sampleMicros(Random random) {
+        if (medianMs == 0) {
+            return 0;
+        }
+        if (p99Ms == medianMs) {
+            return Math.round(medianMs * 1000);
+        }
+        double sigma = Math.log(p99Ms / medianMs) / Z_99;
+        return Math.round(medianMs * 1000 * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    @Override
+    public String toString() {
+        return medianMs + "ms median, " + p99Ms + "ms p99";
+    }
+}
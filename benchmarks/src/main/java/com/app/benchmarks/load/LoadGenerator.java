@@ -0,0 +1,156 @@
+package com.app.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Open-model load generator: requests are started at a fixed rate whether or not earlier ones have completed,
+ * as independent clients would send them. Latency is measured from the moment a request was due rather than
+ * when it was actually sent, so a stalled server shows up in the percentiles instead of silently lowering the
+ * request rate (coordinated omission).
+ *
+ * <p>
+ * Requests are drawn from weighted {@link Scenario}s with a seeded random generator, so two runs send the same
+ * sequence. Results of the warmup period are discarded.
+ * </p>
+ */
+class LoadGenerator {
+
+    private static final int PERCENTILE_DIGITS = 3;
+
+    private final HttpClient httpClient;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final double requestsPerSecond;
+
+    /**
+     * A kind of request and its share of the load.
+     * @param name the name used in the report
+     * @param weight the relative frequency of the scenario
+     * @param request creates the next request from the load generator's random generator
+     */
+    record Scenario(String name, int weight, Function<Random, HttpRequest> request) {
+    }
+
+    /**
+     * Measured results of one scenario. Latencies are in microseconds.
+     */
+    record Result(String name, long requests, long successes, long clientErrors, long serverErrors,
+                  long failures, double throughput, Histogram latency) {
+
+        long percentile(double percentile) {
+            return latency.getValueAtPercentile(percentile);
+        }
+    }
+
+    LoadGenerator(HttpClient httpClient, List<Scenario> scenarios, double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("The request rate must be positive");
+        }
+        this.httpClient = httpClient;
+        this.scenarios = List.copyOf(scenarios);
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * Sends requests for the warmup and measurement periods and waits for the outstanding ones.
+     * @return one result per scenario, in the order of the scenarios
+     */
+    List<Result> run(Duration warmup, Duration duration, long seed) {
+        Random random = new Random(seed);
+        Stats[] stats = new Stats[scenarios.size()];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new Stats();
+        }
+
+        long intervalNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        for (long due = start; due < end; due += intervalNanos) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int index = pick(random);
+            HttpRequest request = scenarios.get(index).request().apply(random);
+            Stats target = due >= measureFrom ? stats[index] : null;
+            long scheduledAt = due;
+            inFlight.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (target != null) {
+                            target.record(scheduledAt, response, error);
+                        }
+                    }));
+            if (inFlight.size() >= 10_000) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        // Requests carry their own timeout, so every outstanding request completes eventually
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(error -> null)
+                .join();
+
+        double seconds = duration.toNanos() / 1e9;
+        List<Result> results = new ArrayList<>(scenarios.size());
+        for (int i = 0; i < stats.length; i++) {
+            results.add(stats[i].result(scenarios.get(i).name(), seconds));
+        }
+        return results;
+    }
+
+    private int pick(Random random) {
+        int ticket = random.nextInt(totalWeight);
+        for (int i = 0; i < scenarios.size(); i++) {
+            ticket -= scenarios.get(i).weight();
+            if (ticket < 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Scenario weights changed");
+    }
+
+    private static final class Stats {
+        private final Recorder latency = new Recorder(PERCENTILE_DIGITS);
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        void record(long scheduledAt, HttpResponse<?> response, Throwable error) {
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt));
+            if (error != null) {
+                failures.incrementAndGet();
+            } else if (response.statusCode() >= 500) {
+                serverErrors.incrementAndGet();
+            } else if (response.statusCode() >= 400) {
+                clientErrors.incrementAndGet();
+            } else {
+                successes.incrementAndGet();
+            }
+        }
+
+        Result result(String name, double seconds) {
+            Histogram histogram = latency.getIntervalHistogram();
+            long requests = histogram.getTotalCount();
+            return new Result(name, requests, successes.get(), clientErrors.get(), serverErrors.get(),
+                    failures.get(), requests / seconds, histogram);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.app.benchmarks.load;
+
+import com.app.AppApplication;
+import com.app.model.CartRequest;
+import com.app.model.ItemDTO;
+import com.app.model.RuleDTO;
+import com.app.model.RulesetDTO;
+import com.app.model.User;
+import com.app.repository.UserRepository;
+import com.app.rules.CompiledRuleset;
+import com.app.talonone.TalonOneEndpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load test of the running application: starts {@link TalonOneSimulator}, boots the application against it with an
+ * in-memory H2 database, seeds users and drives POST /rewards/evaluate, POST /orders and GET /users/{id} at a target
+ * request rate with {@link LoadGenerator}. Prints throughput, latency percentiles and errors per endpoint, and writes
+ * them as JSON.
+ *
+ * <p>
+ * Options (all optional, as --name=value):
+ * <ul>
+ *     <li>load.rps=200 - requests started per second, across all scenarios</li>
+ *     <li>load.duration=30 - measured seconds</li>
+ *     <li>load.warmup=10 - seconds of load before measuring</li>
+ *     <li>load.mix=evaluate:60,orders:30,users:10 - relative weight of each scenario</li>
+ *     <li>load.users=1000 - users seeded in the database</li>
+ *     <li>load.carts=10000 - distinct carts sent, fewer carts mean more session cache hits</li>
+ *     <li>load.items=5 - lines per cart</li>
+ *     <li>load.seed=1 - seed of the users, carts and request sequence</li>
+ *     <li>load.timeout=30 - seconds after which a request counts as failed</li>
+ *     <li>load.output=load-result.json</li>
+ *     <li>sim.&lt;endpoint&gt;.latency - median:p99 in ms (profiles 15:60, sessions 25:120, loyalty 15:60)</li>
+ *     <li>sim.&lt;endpoint&gt;.error-rate=0 - fraction of requests answered with HTTP 500</li>
+ *     <li>sim.rules - a ruleset JSON file as accepted by PUT /rules; a small built-in ruleset by default</li>
+ * </ul>
+ * Any other argument is passed to the application, e.g. --spring.threads.virtual.enabled=true or
+ * --talonone.rewards.profile-sync-mode=PARALLEL.
+ * </p>
+ */
+public final class LoadTest {
+
+    private static final int CATALOGUE = 500;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--load.") || arg.startsWith("--sim.")) {
+                int separator = arg.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        double rps = Double.parseDouble(options.getOrDefault("load.rps", "200"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("load.duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("load.warmup", "10")));
+        int userCount = Integer.parseInt(options.getOrDefault("load.users", "1000"));
+        int cartCount = Integer.parseInt(options.getOrDefault("load.carts", "10000"));
+        int items = Integer.parseInt(options.getOrDefault("load.items", "5"));
+        long seed = Long.parseLong(options.getOrDefault("load.seed", "1"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("load.timeout", "30")));
+        String output = options.getOrDefault("load.output", "load-result.json");
+
+        Map<TalonOneEndpoint, TalonOneSimulator.Behaviour> behaviours = new EnumMap<>(TalonOneEndpoint.class);
+        for (TalonOneEndpoint endpoint : TalonOneEndpoint.values()) {
+            String prefix = "sim." + endpoint.key();
+            String defaultLatency = endpoint == TalonOneEndpoint.SESSIONS ? "25:120" : "15:60";
+            behaviours.put(endpoint, new TalonOneSimulator.Behaviour(
+                    Latency.parse(options.getOrDefault(prefix + ".latency", defaultLatency)),
+                    Double.parseDouble(options.getOrDefault(prefix + ".error-rate", "0"))));
+        }
+        RulesetDTO rules = options.containsKey("sim.rules")
+                ? objectMapper.readValue(new File(options.get("sim.rules")), RulesetDTO.class)
+                : defaultRuleset();
+
+        try (TalonOneSimulator simulator = new TalonOneSimulator(behaviours, CompiledRuleset.compile(rules));
+             ConfigurableApplicationContext application = start(simulator, applicationArgs)) {
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            List<Long> userIds = seedUsers(application.getBean(UserRepository.class), userCount, seed);
+            List<String> carts = carts(objectMapper, userIds, cartCount, items, seed);
+
+            ExecutorService clientExecutor = Executors.newCachedThreadPool();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(clientExecutor)
+                    .build();
+            String baseUrl = "http://localhost:" + port;
+            List<LoadGenerator.Scenario> scenarios = scenarios(options.getOrDefault("load.mix",
+                    "evaluate:60,orders:30,users:10"), baseUrl, carts, userIds, timeout);
+
+            System.out.printf("Load test: %.0f req/s for %ds after %ds warmup, %d users, %d carts of %d items%n",
+                    rps, duration.toSeconds(), warmup.toSeconds(), userCount, cartCount, items);
+            for (TalonOneEndpoint endpoint : TalonOneEndpoint.values()) {
+                System.out.printf("Talon.One %-9s %s, %.1f%% errors%n", endpoint.key(),
+                        simulator.behaviour(endpoint).latency(), simulator.behaviour(endpoint).errorRate() * 100);
+            }
+            List<LoadGenerator.Result> results = new LoadGenerator(httpClient, scenarios, rps)
+                    .run(warmup, duration, seed);
+            clientExecutor.shutdownNow();
+
+            report(results, simulator);
+            objectMapper.writeValue(new File(output), json(options, results, simulator));
+            System.out.println("Results written to " + output);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(TalonOneSimulator simulator, List<String> args) {
+        Map<String, Object> defaults = new LinkedHashMap<>();
+        defaults.put("server.port", 0);
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        defaults.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        defaults.put("spring.jpa.open-in-view", false);
+        defaults.put("logging.level.root", "WARN");
+        defaults.put("talonone.base-url", simulator.baseUrl());
+        defaults.put("talonone.api-key", "load-test");
+        return new SpringApplicationBuilder(AppApplication.class)
+                .properties(defaults)
+                .run(args.toArray(new String[0]));
+    }
+
+    private static List<Long> seedUsers(UserRepository userRepository, int count, long seed) {
+        Random random = new Random(seed);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .email("user" + i + "@example.com")
+                    .name("User " + i)
+                    .loyaltyPoints(random.nextInt(5_000))
+                    .build());
+        }
+        return userRepository.saveAll(users).stream().map(User::getId).toList();
+    }
+
+    private static List<String> carts(ObjectMapper objectMapper, List<Long> userIds, int count, int size, long seed)
+            throws IOException {
+        Random random = new Random(seed);
+        List<String> carts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<ItemDTO> items = new ArrayList<>(size);
+            long total = 0;
+            for (int line = 0; line < size; line++) {
+                int product = random.nextInt(CATALOGUE);
+                ItemDTO item = ItemDTO.builder()
+                        .sku(String.format("SKU-%06d", product))
+                        .name("Product " + product)
+                        .quantity(1 + random.nextInt(3))
+                        .price(100L + random.nextInt(9_900))
+                        .build();
+                total += item.getPrice() * item.getQuantity();
+                items.add(item);
+            }
+            // CartRequest and OrderRequest share their JSON shape
+            carts.add(objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT).writeValueAsString(
+                    CartRequest.builder().userId(userIds.get(random.nextInt(userIds.size()))).items(items).total(total).build()));
+        }
+        return carts;
+    }
+
+    private static List<LoadGenerator.Scenario> scenarios(String mix, String baseUrl, List<String> carts,
+                                                          List<Long> userIds, Duration timeout) {
+        List<LoadGenerator.Scenario> scenarios = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            String name = parts[0].trim();
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight <= 0) {
+                continue;
+            }
+            scenarios.add(switch (name) {
+                case "evaluate" -> new LoadGenerator.Scenario("POST /rewards/evaluate", weight,
+                        random -> post(baseUrl + "/rewards/evaluate", carts.get(random.nextInt(carts.size())), timeout));
+                case "orders" -> new LoadGenerator.Scenario("POST /orders", weight,
+                        random -> post(baseUrl + "/orders", carts.get(random.nextInt(carts.size())), timeout));
+                case "users" -> new LoadGenerator.Scenario("GET /users/{id}", weight,
+                        random -> HttpRequest.newBuilder(URI.create(baseUrl + "/users/"
+                                + userIds.get(random.nextInt(userIds.size())))).timeout(timeout).GET().build());
+                default -> throw new IllegalArgumentException("Unknown scenario " + name
+                        + ", expected evaluate, orders or users");
+            });
+        }
+        return scenarios;
+    }
+
+    private static HttpRequest post(String url, String json, Duration timeout) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /**
+     * A few cart-wide promotions, discounts on a tenth of the catalogue and loyalty redemption.
+     */
+    private static RulesetDTO defaultRuleset() {
+        List<RuleDTO> rules = new ArrayList<>();
+        rules.add(RuleDTO.builder().code("TEN-OFF-100").description("10% off orders over 100.00")
+                .type(RuleDTO.Type.CART_PERCENTAGE).value(1_000).minCartTotal(10_000).priority(10).build());
+        rules.add(RuleDTO.builder().code("FIVE-OFF-50").description("5.00 off orders over 50.00")
+                .type(RuleDTO.Type.CART_FIXED).value(500).minCartTotal(5_000).priority(20).build());
+        for (int product = 0; product < CATALOGUE; product += 10) {
+            rules.add(RuleDTO.builder().code("PROMO-" + product).description("15% off product " + product)
+                    .type(RuleDTO.Type.SKU_PERCENTAGE).sku(String.format("SKU-%06d", product))
+                    .value(1_500).priority(30).build());
+        }
+        rules.add(RuleDTO.builder().code("LOYALTY").description("Redeem loyalty points, 1 cent each")
+                .type(RuleDTO.Type.LOYALTY_REDEMPTION).value(1).maxPoints(1_000).priority(100).build());
+        return RulesetDTO.builder().version("load-test").rules(rules).build();
+    }
+
+    private static void report(List<LoadGenerator.Result> results, TalonOneSimulator simulator) {
+        System.out.printf("%n%-24s %9s %9s %9s %9s %9s %9s %9s %7s %7s %7s%n", "scenario", "requests", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "4xx", "5xx", "failed");
+        for (LoadGenerator.Result result : results) {
+            System.out.printf("%-24s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d%n", result.name(),
+                    result.requests(), result.throughput(), millis(result.percentile(50)),
+                    millis(result.percentile(90)), millis(result.percentile(99)), millis(result.percentile(99.9)),
+                    millis(result.latency().getMaxValue()), result.clientErrors(), result.serverErrors(),
+                    result.failures());
+        }
+        for (TalonOneEndpoint endpoint : TalonOneEndpoint.values()) {
+            System.out.printf("Talon.One %-9s %9d requests %7d simulated errors%n", endpoint.key(),
+                    simulator.requests(endpoint), simulator.errors(endpoint));
+        }
+    }
+
+    private static Map<String, Object> json(Map<String, String> options, List<LoadGenerator.Result> results,
+                                            TalonOneSimulator simulator) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("options", options);
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        for (LoadGenerator.Result result : results) {
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("name", result.name());
+            scenario.put("requests", result.requests());
+            scenario.put("throughput", result.throughput());
+            scenario.put("successes", result.successes());
+            scenario.put("clientErrors", result.clientErrors());
+            scenario.put("serverErrors", result.serverErrors());
+            scenario.put("failures", result.failures());
+            Map<String, Double> latency = new LinkedHashMap<>();
+            for (double percentile : new double[]{50, 90, 99, 99.9}) {
+                latency.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                        millis(result.percentile(percentile)));
+            }
+            latency.put("max", millis(result.latency().getMaxValue()));
+            latency.put("mean", result.latency().getMean() / 1000);
+            scenario.put("latencyMs", latency);
+            scenarios.add(scenario);
+        }
+        json.put("scenarios", scenarios);
+        Map<String, Object> talonOne = new LinkedHashMap<>();
+        for (TalonOneEndpoint endpoint : TalonOneEndpoint.values()) {
+            talonOne.put(endpoint.key(), Map.of("requests", simulator.requests(endpoint),
+                    "errors", simulator.errors(endpoint)));
+        }
+        json.put("talonOne", talonOne);
+        return json;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,195 @@
+package com.app.benchmarks.load;
+
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.rules.CompiledRuleset;
+import com.app.talonone.TalonOneEndpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the Talon.One Integration API, serving the three endpoints {@link com.app.talonone.TalonOneClient}
+ * calls. Each endpoint answers after a delay drawn from its {@link Latency} and fails with HTTP 500 at its error rate.
+ *
+ * <p>
+ * Sessions are evaluated with a {@link CompiledRuleset}, the same rules engine the application runs locally,
+ * so discounts depend on the cart like they would in Talon.One. The loyalty points of a session are those of
+ * the last profile pushed for its integrationId. Requests without an Authorization header get a 401.
+ * </p>
+ */
+public class TalonOneSimulator implements AutoCloseable {
+
+    private static final String PROFILES = "/v1/profiles/";
+    private static final String SESSIONS = "/v1/sessions";
+    private static final String LOYALTY = "/v1/loyalty/";
+
+    static {
+        // The JDK server leaves Nagle's algorithm on, which stalls responses on keep-alive connections for the
+        // peer's delayed ACK (~40ms on Linux) and would dwarf the latencies being simulated.
+        // Read once when the server classes load, so it has to be set before the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Map<TalonOneEndpoint, Behaviour> behaviours;
+    private final CompiledRuleset ruleset;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Integer> loyaltyPoints = new ConcurrentHashMap<>();
+    private final Map<TalonOneEndpoint, AtomicLong> requests = new EnumMap<>(TalonOneEndpoint.class);
+    private final Map<TalonOneEndpoint, AtomicLong> errors = new EnumMap<>(TalonOneEndpoint.class);
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    /**
+     * How one endpoint behaves.
+     * @param latency the response delay
+     * @param errorRate the fraction of requests, between 0 and 1, answered with HTTP 500
+     */
+    public record Behaviour(Latency latency, double errorRate) {
+
+        public static final Behaviour IMMEDIATE = new Behaviour(Latency.NONE, 0);
+
+        public Behaviour {
+            if (errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("Error rate must be between 0 and 1, got " + errorRate);
+            }
+        }
+    }
+
+    /**
+     * Starts the simulator on a free port of the loopback interface.
+     * @param behaviours the behaviour of each endpoint; missing endpoints answer immediately
+     * @param ruleset the rules sessions are evaluated with
+     */
+    public TalonOneSimulator(Map<TalonOneEndpoint, Behaviour> behaviours, CompiledRuleset ruleset) throws IOException {
+        this.behaviours = new EnumMap<>(TalonOneEndpoint.class);
+        for (TalonOneEndpoint endpoint : TalonOneEndpoint.values()) {
+            this.behaviours.put(endpoint, behaviours.getOrDefault(endpoint, Behaviour.IMMEDIATE));
+            requests.put(endpoint, new AtomicLong());
+            errors.put(endpoint, new AtomicLong());
+        }
+        this.ruleset = ruleset;
+        // Delayed responses hold their thread, like a slow server would
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "talonone-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/v1/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return the URL to configure as talonone.base-url
+     */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of requests received by the endpoint
+     */
+    public long requests(TalonOneEndpoint endpoint) {
+        return requests.get(endpoint).get();
+    }
+
+    /**
+     * @return the number of requests the endpoint failed on purpose
+     */
+    public long errors(TalonOneEndpoint endpoint) {
+        return errors.get(endpoint).get();
+    }
+
+    public Behaviour behaviour(TalonOneEndpoint endpoint) {
+        return behaviours.get(endpoint);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            TalonOneEndpoint endpoint;
+            if (path.startsWith(PROFILES) && method.equals("PUT")) {
+                endpoint = TalonOneEndpoint.PROFILES;
+            } else if (path.equals(SESSIONS) && method.equals("POST")) {
+                endpoint = TalonOneEndpoint.SESSIONS;
+            } else if (path.startsWith(LOYALTY) && path.endsWith("/confirm") && method.equals("POST")) {
+                endpoint = TalonOneEndpoint.LOYALTY;
+            } else {
+                respond(exchange, 404, "{\"message\":\"Not found\"}");
+                return;
+            }
+            requests.get(endpoint).incrementAndGet();
+            if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+                respond(exchange, 401, "{\"message\":\"Missing API key\"}");
+                return;
+            }
+
+            Behaviour behaviour = behaviours.get(endpoint);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            TimeUnit.MICROSECONDS.sleep(behaviour.latency().sampleMicros(random));
+            if (random.nextDouble() < behaviour.errorRate()) {
+                errors.get(endpoint).incrementAndGet();
+                respond(exchange, 500, "{\"message\":\"Simulated failure\"}");
+                return;
+            }
+
+            switch (endpoint) {
+                case PROFILES -> {
+                    ProfileDTO profile = objectMapper.readValue(body, ProfileDTO.class);
+                    loyaltyPoints.put(path.substring(PROFILES.length()), profile.getLoyaltyPoints());
+                    respond(exchange, 204, null);
+                }
+                case SESSIONS -> {
+                    SessionDTO session = objectMapper.readValue(body, SessionDTO.class);
+                    RewardsResponse rewards = ruleset.evaluate(session.getCartItems(), session.getCartTotal(),
+                            loyaltyPoints.getOrDefault(session.getIntegrationId(), 0));
+                    respond(exchange, 200, objectMapper.writeValueAsString(rewards));
+                }
+                case LOYALTY -> {
+                    body.transferTo(OutputStream.nullOutputStream());
+                    respond(exchange, 204, null);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -2,12 +2,17 @@ package com.app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry point for the TalonOneApp Spring Boot application.
  * This class bootstraps the application and enables component scanning for the com.app package.
+ * Scheduling is enabled for background jobs such as the loyalty confirmation outbox.
+ * Setting spring.threads.virtual.enabled=true on Java 21+ runs request handling, scheduled jobs and
+ * outbound Talon.One calls on virtual threads (see {@link com.app.config.ExecutorFactory}).
  */
 @SpringBootApplication
+@EnableScheduling
 public class AppApplication {
     public static void main(String[] args) {
         SpringApplication.run(AppApplication.class, args);
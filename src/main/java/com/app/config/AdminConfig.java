@@ -0,0 +1,57 @@
+package com.app.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Access control of the admin endpoints. The application has no Spring Security, and adding it for these
+ * would lock all the other endpoints.
+ *
+ * <p>
+ * Changes to the ruleset (anything but GET on /rules) change the discounts of every cart, so they require the
+ * {@code X-Admin-Token} header to match app.rules.admin-token and are refused with 403 while that is not set.
+ * The token is checked by an interceptor, before the request body is read or validated, so an unauthorized
+ * caller always gets 403 and learns nothing from validation errors.
+ * </p>
+ */
+@Configuration
+public class AdminConfig implements WebMvcConfigurer {
+
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final byte[] adminToken;
+
+    public AdminConfig(@Value("${app.rules.admin-token:}") String adminToken) {
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (HttpMethod.GET.matches(request.getMethod()) || isAdmin(request.getHeader(ADMIN_TOKEN_HEADER))) {
+                    return true;
+                }
+                response.setStatus(HttpStatus.FORBIDDEN.value());
+                return false;
+            }
+        }).addPathPatterns("/rules", "/rules/**");
+    }
+
+    private boolean isAdmin(String token) {
+        // Constant time, so the token cannot be guessed from response times
+        return adminToken.length > 0 && token != null
+                && MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * HTTP response compression for large JSON responses.
+ * Only applies when the application runs an embedded servlet container.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CompressionConfig {
+
+    /**
+     * Gzips JSON and NDJSON responses of at least app.compression.min-response-size (default 2KB) for clients
+     * sending Accept-Encoding: gzip, e.g. orders with many lines or order history pages. Smaller responses,
+     * like a typical order, are sent as is since compressing them costs more than it saves.
+     * Disabled with app.compression.enabled=false; explicit server.compression.* settings win.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> jsonCompressionCustomizer(
+            ServerProperties serverProperties,
+            @Value("${app.compression.enabled:true}") boolean enabled,
+            @Value("${app.compression.min-response-size:2KB}") DataSize minResponseSize) {
+        return new JsonCompressionCustomizer(serverProperties, enabled, minResponseSize);
+    }
+
+    /**
+     * Runs after Spring Boot's own customizer, which applies server.compression.* unconditionally.
+     */
+    private record JsonCompressionCustomizer(ServerProperties serverProperties, boolean enabled, DataSize minResponseSize)
+            implements WebServerFactoryCustomizer<ConfigurableServletWebServerFactory>, Ordered {
+
+        @Override
+        public void customize(ConfigurableServletWebServerFactory factory) {
+            if (!enabled || serverProperties.getCompression().getEnabled()) {
+                return;
+            }
+            Compression compression = new Compression();
+            compression.setEnabled(true);
+            compression.setMimeTypes(new String[] {
+                    MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE});
+            compression.setMinResponseSize(minResponseSize);
+            factory.setCompression(compression);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Executors used to run Talon.One calls off the request thread.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool for Talon.One calls that overlap with work on the request thread,
+     * e.g. the profile update in {@link com.app.service.ProfileSyncMode#PARALLEL} mode.
+     * Configured with talonone.executor.threads (default 32); on virtual threads each call gets its own
+     * thread and concurrency is bounded by the Talon.One bulkheads instead.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService talonOneExecutor(ExecutorFactory executorFactory,
+                                            @Value("${talonone.executor.threads:32}") int threads) {
+        return executorFactory.blocking("talonone-", threads);
+    }
+}
@@ -0,0 +1,73 @@
+package com.app.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the application's executors on platform or virtual threads.
+ * Virtual threads are used when spring.threads.virtual.enabled=true and the JVM supports them (Java 21+),
+ * the same switch that moves Tomcat request handling and @Scheduled jobs onto virtual threads.
+ *
+ * <p>
+ * With virtual threads a blocked Talon.One call no longer holds a platform thread, so concurrency is bounded
+ * by the HTTP connection pools and the bulkheads in front of them rather than by thread pool sizes.
+ * Pools that exist to limit concurrency, e.g. the loyalty outbox dispatcher, keep their size
+ * on either kind of thread.
+ * </p>
+ */
+@Component
+public class ExecutorFactory {
+
+    private final boolean virtual;
+
+    public ExecutorFactory(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * @return true if executors run their tasks on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Executor running at most {@code threads} tasks at a time; further tasks are queued.
+     * @param prefix the thread name prefix
+     * @param threads the maximum number of concurrently running tasks
+     */
+    public ExecutorService bounded(String prefix, int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory(prefix));
+    }
+
+    /**
+     * Executor for blocking I/O: a new virtual thread per task in virtual mode, a fixed pool of
+     * {@code platformThreads} otherwise.
+     * @param prefix the thread name prefix
+     * @param platformThreads the pool size when running on platform threads
+     */
+    public ExecutorService blocking(String prefix, int platformThreads) {
+        if (!virtual) {
+            return bounded(prefix, platformThreads);
+        }
+        // No idle workers are kept, so every task gets a fresh virtual thread
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), threadFactory(prefix));
+    }
+
+    private ThreadFactory threadFactory(String prefix) {
+        return virtual ? new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory()
+                : new CustomizableThreadFactory(prefix);
+    }
+}
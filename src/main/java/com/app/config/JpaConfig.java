@@ -0,0 +1,51 @@
+package com.app.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate settings for the order read and write paths.
+ */
+@Configuration
+public class JpaConfig {
+
+    /**
+     * Enables JDBC batching so an order and its line items are written in a few round trips instead of
+     * one per row. Inserts and updates are ordered by entity so consecutive statements can share a batch.
+     * Configured with app.jpa.batch-size (default 50); explicit spring.jpa.properties.hibernate.* settings win.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(@Value("${app.jpa.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+
+    /**
+     * Guards read paths against N+1 loading: lazy associations that are touched without an explicit
+     * fetch plan are initialized for up to app.jpa.batch-fetch-size (default 32) owners per query, and
+     * a paged query that join fetches a collection fails instead of silently paginating in memory.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer fetchPlanCustomizer(@Value("${app.jpa.batch-fetch-size:32}") int batchFetchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, batchFetchSize);
+            properties.putIfAbsent(AvailableSettings.FAIL_ON_PAGINATION_OVER_COLLECTION_FETCH, true);
+        };
+    }
+
+    /**
+     * Counts the statements prepared per request for the http.server.db.statements metric,
+     * see {@link ObservabilityConfig}.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+}
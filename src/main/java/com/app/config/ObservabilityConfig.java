@@ -0,0 +1,89 @@
+package com.app.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+/**
+ * Latency and database instrumentation of the request path.
+ *
+ * <p>
+ * Metrics: histogram buckets for {@code checkout.stage}, {@code talonone.client.requests} and
+ * {@code talonone.client.async.requests}, so percentiles can be aggregated across instances, and
+ * {@code http.server.db.statements} (tags {@code method}, {@code uri}) with the number of SQL statements
+ * each request prepared, see {@link StatementCounter}.
+ * </p>
+ */
+@Configuration
+public class ObservabilityConfig implements WebMvcConfigurer {
+
+    private static final Set<String> HISTOGRAMS = Set.of(
+            "checkout.stage", "talonone.client.requests", "talonone.client.async.requests");
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ObservabilityConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public MeterFilter latencyHistogramFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HISTOGRAMS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                StatementCounter.start();
+                return true;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                       Object handler) {
+                // Streaming responses continue on another thread and are not counted
+                StatementCounter.stop();
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                int statements = StatementCounter.stop();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (statements >= 0 && pattern != null) {
+                    DistributionSummary.builder("http.server.db.statements")
+                            .tag("method", request.getMethod())
+                            .tag("uri", pattern.toString())
+                            .register(meterRegistry.getObject())
+                            .record(statements);
+                }
+            }
+        });
+    }
+}
@@ -2,23 +2,30 @@ package com.app.controller;
 
 import com.app.model.OrderRequest;
 import com.app.model.OrderResponse;
+import com.app.service.CartTotalMismatchException;
+import com.app.service.InsufficientLoyaltyPointsException;
+import com.app.service.OrderBatchService;
 import com.app.service.OrderService;
-import com.app.service.RewardsService;
-import com.app.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-lombok.RequiredArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Controller responsible for handling order-related endpoints.
- * Exposes POST /orders to process new orders, evaluate rewards, and update user data.
+ * Exposes POST /orders to process new orders, evaluate rewards, and update user data,
+ * and POST /orders/batch for bulk ingestion.
  */
 @RestController
 @RequestMapping("/orders")
@@ -26,43 +33,25 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
-    private final RewardsService rewardsService;
-    private final UserService userService;
+    private final OrderBatchService orderBatchService;
 
     /**
      * Handles the creation of a new order.
      * 1. Validates the incoming OrderRequest.
-     * 2. Evaluates rewards for the order using RewardsService.
-     * 3. Persists the order using OrderService.
-     * 4. Updates the user using UserService.
+     * 2. Places the order using OrderService, which evaluates rewards, persists the order
+     *    and updates the user in a single transaction.
      */
     @PostMapping
     public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
         try {
-            // Step 1: Validate user existence
-            var user = userService.findUserById(orderRequest.getUserId());
-            if (user == null) {
-                return buildNotFound("User not found with id: " + orderRequest.getUserId());
-            }
-
-            // Step 2: Evaluate rewards/discounts for the order
-            var rewardsResult = rewardsService.evaluateRewards(orderRequest);
-
-            // Step 3: Save the order
-            var savedOrder = orderService.saveOrder(orderRequest, rewardsResult);
-            if (savedOrder == null) {
-                return buildNotFound("Order could not be saved.");
-            }
-
-            // Step 4: Update user (e.g., loyalty points, order history)
-            userService.updateUserAfterOrder(user, savedOrder, rewardsResult);
-
-            // Step 5: Build response
-            OrderResponse response = new OrderResponse(savedOrder, rewardsResult);
+            OrderResponse response = orderService.placeOrder(orderRequest);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
-
-        } catch (MethodArgumentNotValidException | BindException ex) {
-            return buildBadRequest("Validation failed: " + ex.getMessage());
+        } catch (NoSuchElementException ex) {
+            return buildNotFound(ex.getMessage());
+        } catch (CartTotalMismatchException ex) {
+            return buildBadRequest(ex.getMessage());
+        } catch (InsufficientLoyaltyPointsException ex) {
+            return buildConflict(ex.getMessage());
         } catch (Exception ex) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Internal server error: " + ex.getMessage());
@@ -70,6 +59,20 @@ public class OrderController {
         }
     }
 
+    /**
+     * POST /orders/batch - Places many orders from a JSON array or NDJSON body.
+     * Responds with one NDJSON line per order (index, status, orderId or error), streamed as each
+     * chunk of orders is committed. Individual failures do not fail the request.
+     */
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createOrders(InputStream body, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        orderBatchService.placeOrders(body, response.getOutputStream());
+    }
+
     @ExceptionHandler({MethodArgumentNotValidException.class, BindException.class})
     public ResponseEntity<Map<String, String>> handleValidationExceptions(Exception ex) {
         Map<String, String> errors = new HashMap<>();
@@ -96,6 +99,12 @@ public class OrderController {
         return ResponseEntity.badRequest().body(error);
     }
 
+    private ResponseEntity<Map<String, String>> buildConflict(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     private ResponseEntity<Map<String, String>> buildNotFound(String message) {
         Map<String, String> error = new HashMap<>();
         error.put("error", message);
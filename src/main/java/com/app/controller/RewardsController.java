@@ -2,9 +2,10 @@ package com.app.controller;
 
 import com.app.model.CartRequest;
 import com.app.model.RewardsResponse;
+import com.app.service.CartTotalMismatchException;
 import com.app.service.RewardsService;
 import jakarta.validation.Valid;
-lombok.RequiredArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -35,6 +36,16 @@ public class RewardsController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Rejects carts whose total does not match their items.
+     */
+    @ExceptionHandler(CartTotalMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleTotalMismatch(CartTotalMismatchException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("total", ex.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
     /**
      * Handles validation errors for @Valid annotated request bodies.
      */
@@ -0,0 +1,75 @@
+package com.app.controller;
+
+import com.app.model.RulesetDTO;
+import com.app.rules.CompiledRuleset;
+import com.app.rules.LocalRulesEngine;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controller for the local rules engine.
+ * Exposes GET /rules to inspect and PUT /rules to replace the ruleset mirrored from Talon.One.
+ *
+ * <p>
+ * PUT /rules is reserved to admins, see {@link com.app.config.AdminConfig}.
+ * </p>
+ */
+@RestController
+@RequestMapping("/rules")
+@RequiredArgsConstructor
+public class RulesController {
+
+    private final LocalRulesEngine localRulesEngine;
+
+    /**
+     * GET /rules - Get the version and size of the ruleset in use.
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getRuleset() {
+        return localRulesEngine.current()
+                .map(ruleset -> ResponseEntity.ok(summary(ruleset)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * PUT /rules - Compile the ruleset and swap it in atomically. Admins only.
+     */
+    @PutMapping
+    public ResponseEntity<?> replaceRuleset(@Valid @RequestBody RulesetDTO rulesetDTO) {
+        try {
+            return ResponseEntity.ok(summary(localRulesEngine.load(rulesetDTO)));
+        } catch (IllegalArgumentException ex) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", ex.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Handle validation errors for @Valid annotated request bodies.
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach(error -> {
+            String fieldName = error instanceof FieldError fieldError ? fieldError.getField() : error.getObjectName();
+            errors.put(fieldName, error.getDefaultMessage());
+        });
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    private static Map<String, Object> summary(CompiledRuleset ruleset) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("version", ruleset.getVersion());
+        summary.put("rules", ruleset.size());
+        return summary;
+    }
+}
@@ -1,15 +1,19 @@
 package com.app.controller;
 
+import com.app.model.OrderPageResponse;
 import com.app.model.UserDTO;
 import com.app.model.UserStatsUpdateRequest;
+import com.app.service.OrderHistoryService;
 import com.app.service.UserService;
 import jakarta.validation.Valid;
-lombok.RequiredArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -21,6 +25,7 @@ import java.util.NoSuchElementException;
 public class UserController {
 
     private final UserService userService;
+    private final OrderHistoryService orderHistoryService;
 
     /**
      * GET /users/{id} - Fetch user details by ID.
@@ -50,6 +55,41 @@ public class UserController {
         }
     }
 
+    /**
+     * GET /users/{id}/orders - Page through the user's orders, newest first.
+     * Pass the returned nextCursor as cursor to fetch the following page.
+     */
+    @GetMapping("/{id}/orders")
+    public ResponseEntity<?> getUserOrders(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + OrderHistoryService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            OrderPageResponse page = orderHistoryService.getOrders(id, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (NoSuchElementException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException ex) {
+            Map<String, String> error = new HashMap<>();
+            error.put("cursor", ex.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * GET /users/{id}/orders/export - Stream all of the user's orders with their items as NDJSON.
+     */
+    @GetMapping(value = "/{id}/orders/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUserOrders(@PathVariable Long id) {
+        try {
+            orderHistoryService.requireUser(id);
+        } catch (NoSuchElementException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        StreamingResponseBody body = out -> orderHistoryService.exportOrders(id, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Handle validation errors for @Valid annotated request bodies.
      */
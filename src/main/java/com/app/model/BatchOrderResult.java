@@ -0,0 +1,19 @@
+package com.app.model;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderResult {
+    // Position of the order in the submitted batch, starting at 0
+    private int index;
+    private Long orderId;
+    private String status; // CREATED, REJECTED (invalid request or unknown user), FAILED
+    private String error;
+    @JsonMoney
+    private long total;
+    @JsonMoney
+    private long discount;
+}
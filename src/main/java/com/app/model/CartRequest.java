@@ -1,7 +1,9 @@
 package com.app.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
@@ -15,8 +17,13 @@ public class CartRequest {
     private Long userId;
 
     @NotEmpty
-    private List<ItemDTO> items;
+    private List<@NotNull @Valid ItemDTO> items;
 
     @NotNull
-    private Double total;
+    @JsonMoney
+    private Long total;
+
+    // Computed on the server by CartPricer, never read from the request
+    @JsonIgnore
+    private PricedCart pricing;
 }
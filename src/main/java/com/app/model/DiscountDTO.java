@@ -9,5 +9,6 @@ import lombok.*;
 public class DiscountDTO {
     private String code;
     private String description;
-    private double amount;
+    @JsonMoney
+    private long amount;
 }
@@ -1,7 +1,7 @@
 package com.app.model;
 
 import jakarta.persistence.*;
-lombok.*;
+import lombok.*;
 
 @Entity
 @Table(name = "items")
@@ -10,8 +10,10 @@ lombok.*;
 @AllArgsConstructor
 @Builder
 public class Item {
+    // Sequence with a pooled optimizer (unlike IDENTITY) lets Hibernate batch the line item inserts of an order
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     private String sku;
@@ -20,9 +22,21 @@ public class Item {
 
     private int quantity;
 
-    private double price;
+    // Amounts are in cents, see Money
+    @Column(name = "price_cents")
+    private long price;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     private Order order;
+
+    public static Item fromDto(ItemDTO dto, Order order) {
+        return Item.builder()
+                .sku(dto.getSku())
+                .name(dto.getName())
+                .quantity(dto.getQuantity())
+                .price(dto.getPrice())
+                .order(order)
+                .build();
+    }
 }
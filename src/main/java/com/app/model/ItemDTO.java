@@ -25,5 +25,17 @@ public class ItemDTO {
 
     @NotNull
     @Min(0)
-    private Double price;
+    @JsonMoney
+    private Long price;
+
+    public static ItemDTO fromEntity(Item item) {
+        if (item == null) return null;
+        return ItemDTO.builder()
+                .id(item.getId())
+                .sku(item.getSku())
+                .name(item.getName())
+                .quantity(item.getQuantity())
+                .price(item.getPrice())
+                .build();
+    }
 }
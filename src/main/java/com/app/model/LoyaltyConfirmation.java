@@ -0,0 +1,72 @@
+package com.app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox entry for a Talon.One loyalty confirmation.
+ * Written in the same transaction as its order and drained by
+ * {@link com.app.service.LoyaltyConfirmationDispatcher}.
+ */
+@Entity
+@Table(name = "loyalty_confirmations",
+        indexes = @Index(name = "idx_loyalty_confirmations_due", columnList = "status, nextAttemptAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoyaltyConfirmation {
+    // Sequence with a pooled optimizer (unlike IDENTITY) lets Hibernate batch the outbox inserts of a batch import
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loyalty_confirmations_seq")
+    @SequenceGenerator(name = "loyalty_confirmations_seq", sequenceName = "loyalty_confirmations_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    // In cents, see Money
+    @Column(name = "amount_cents")
+    private long amount;
+
+    // Sent as Idempotency-Key so a retried confirmation is applied once by Talon.One
+    @Column(nullable = false, unique = true)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime confirmedAt;
+
+    private String lastError;
+
+    public enum Status {
+        PENDING, CONFIRMED, FAILED
+    }
+
+    public static LoyaltyConfirmation forOrder(Order order) {
+        LocalDateTime now = LocalDateTime.now();
+        return LoyaltyConfirmation.builder()
+                .orderId(order.getId())
+                .userId(order.getUser().getId().toString())
+                .amount(order.getTotal())
+                .idempotencyKey("order-" + order.getId())
+                .status(Status.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,237 @@
+package com.app.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic on money amounts held as {@code long} minor units (cents).
+ * All amounts in the application are in the single currency of the Talon.One application, with two
+ * fraction digits. Arithmetic is exact and throws {@link ArithmeticException} on overflow instead of wrapping;
+ * rounding, where needed, is half-up as with {@link RoundingMode#HALF_UP}.
+ *
+ * <p>
+ * Amounts are written to and read from JSON as plain decimals (e.g. {@code 12.99}), see {@link JsonMoney}.
+ * </p>
+ */
+public final class Money {
+
+    public static final int FRACTION_DIGITS = 2;
+    private static final long UNIT = 100;
+    // Longest formatted amount: sign, 17 integer digits, point, 2 fraction digits
+    private static final int MAX_LENGTH = 21;
+    // The generator copies the characters before returning, so each thread can reuse one buffer for all amounts
+    private static final ThreadLocal<char[]> WRITE_BUFFER = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    private Money() {
+    }
+
+    /**
+     * Parses a decimal amount such as {@code "12.99"} or {@code "-3.5"} to cents without allocating.
+     * Fraction digits beyond the second are rounded half-up.
+     * @throws NumberFormatException if the text is not a decimal number
+     * @throws ArithmeticException if the amount does not fit into a long
+     */
+    public static long parse(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        for (; i < end && chars[i] != '.'; i++, digits++) {
+            units = Math.addExact(Math.multiplyExact(units, 10), digit(chars, offset, length, i));
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < end) {
+            for (i++; i < end; i++, fractionDigits++) {
+                int digit = digit(chars, offset, length, i);
+                if (fractionDigits < FRACTION_DIGITS) {
+                    fraction = fraction * 10 + digit;
+                } else if (fractionDigits == FRACTION_DIGITS && digit >= 5) {
+                    fraction++;
+                }
+            }
+        }
+        if (digits == 0 && fractionDigits == 0) {
+            throw new NumberFormatException("Not an amount: " + new String(chars, offset, length));
+        }
+        for (int scale = Math.min(fractionDigits, FRACTION_DIGITS); scale < FRACTION_DIGITS; scale++) {
+            fraction *= 10;
+        }
+        long cents = Math.addExact(Math.multiplyExact(units, UNIT), fraction);
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Parses a decimal amount to cents, see {@link #parse(char[], int, int)}.
+     */
+    public static long parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    /**
+     * Converts a decimal amount to cents, rounding half-up; for amounts not already held in cents,
+     * e.g. configuration values.
+     */
+    public static long of(BigDecimal amount) {
+        return amount.setScale(FRACTION_DIGITS, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Formats cents as a decimal amount with two fraction digits, e.g. {@code 1299} as {@code "12.99"}.
+     */
+    public static String format(long cents) {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, format(cents, buffer));
+    }
+
+    /**
+     * Writes cents as a decimal amount into the buffer, which must hold at least 21 characters.
+     * @return the number of characters written
+     */
+    static int format(long cents, char[] buffer) {
+        if (cents == Long.MIN_VALUE) {
+            String text = BigDecimal.valueOf(cents, FRACTION_DIGITS).toPlainString();
+            text.getChars(0, text.length(), buffer, 0);
+            return text.length();
+        }
+        long magnitude = Math.abs(cents);
+        int position = buffer.length;
+        buffer[--position] = (char) ('0' + magnitude % 10);
+        buffer[--position] = (char) ('0' + magnitude / 10 % 10);
+        buffer[--position] = '.';
+        long units = magnitude / UNIT;
+        do {
+            buffer[--position] = (char) ('0' + units % 10);
+            units /= 10;
+        } while (units > 0);
+        if (cents < 0) {
+            buffer[--position] = '-';
+        }
+        int length = buffer.length - position;
+        System.arraycopy(buffer, position, buffer, 0, length);
+        return length;
+    }
+
+    /**
+     * @return the price of {@code quantity} units
+     */
+    public static long times(long cents, int quantity) {
+        return Math.multiplyExact(cents, (long) quantity);
+    }
+
+    /**
+     * Applies a percentage given in basis points (hundredths of a percent, 1250 = 12.5%), rounding half-up.
+     */
+    public static long percentage(long cents, long basisPoints) {
+        long scaled = Math.multiplyExact(cents, basisPoints);
+        long result = scaled / 10_000;
+        long remainder = Math.abs(scaled % 10_000);
+        if (remainder >= 5_000) {
+            result += scaled < 0 ? -1 : 1;
+        }
+        return result;
+    }
+
+    /**
+     * @return the amount as a double, only for reporting such as metrics
+     */
+    public static double toDouble(long cents) {
+        return cents / (double) UNIT;
+    }
+
+    /**
+     * Writes cents to the generator as a JSON decimal number, e.g. {@code 12.99}, formatted into a buffer reused
+     * by the calling thread.
+     */
+    public static void write(JsonGenerator gen, long cents) throws IOException {
+        char[] buffer = WRITE_BUFFER.get();
+        gen.writeNumber(buffer, 0, format(cents, buffer));
+    }
+
+    /**
+     * Reads the current token of the parser, a JSON number or a string holding one, as cents.
+     * The token text is parsed in place without allocating.
+     * @throws NumberFormatException if the token is not a decimal number
+     * @throws ArithmeticException if the amount does not fit into a long
+     */
+    public static long read(JsonParser p) throws IOException {
+        char[] chars = p.getTextCharacters();
+        int offset = p.getTextOffset();
+        int length = p.getTextLength();
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_FLOAT && hasExponent(chars, offset, length)) {
+            // Exponent notation is rare enough to take the slow path
+            return of(p.getDecimalValue());
+        }
+        return parse(chars, offset, length);
+    }
+
+    private static boolean hasExponent(char[] chars, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (chars[i] == 'e' || chars[i] == 'E') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int digit(char[] chars, int offset, int length, int index) {
+        char c = chars[index];
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Not an amount: " + new String(chars, offset, length));
+        }
+        return c - '0';
+    }
+
+    /**
+     * Writes cents as a JSON decimal number.
+     */
+    public static class Serializer extends StdScalarSerializer<Long> {
+
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long cents, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(gen, cents);
+        }
+    }
+
+    /**
+     * Reads a JSON decimal number, or a string holding one, as cents.
+     */
+    public static class Deserializer extends StdScalarDeserializer<Long> {
+
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+            }
+            try {
+                return read(p);
+            } catch (NumberFormatException | ArithmeticException ex) {
+                return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(), "not a money amount: %s", ex.getMessage());
+            }
+        }
+    }
+}
@@ -1,35 +1,59 @@
 package com.app.model;
 
 import jakarta.persistence.*;
-lombok.*;
+import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = @Index(name = "idx_orders_user_created", columnList = "user_id, createdAt, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Order {
+    // Sequence with a pooled optimizer (unlike IDENTITY) lets Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    // Lazy: read paths that need the user fetch it explicitly (see OrderRepository entity graphs)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Item> items;
 
-    private double total;
+    // Amounts are in cents, see Money
+    @Column(name = "total_cents")
+    private long total;
 
-    private double discount;
+    @Column(name = "discount_cents")
+    private long discount;
 
     @Column(nullable = false)
     private String status; // e.g., PLACED, CANCELLED
 
     private LocalDateTime createdAt;
+
+    /**
+     * Creates a new PLACED order for the user with the given line items, final total and discount in cents.
+     */
+    public static Order placed(User user, List<ItemDTO> items, long total, long discount) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setTotal(total);
+        order.setDiscount(discount);
+        order.setStatus("PLACED");
+        order.setCreatedAt(LocalDateTime.now());
+        List<Item> lines = new ArrayList<>(items.size());
+        items.forEach(dto -> lines.add(Item.fromDto(dto, order)));
+        order.setItems(lines);
+        return order;
+    }
 }
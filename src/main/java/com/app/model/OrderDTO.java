@@ -0,0 +1,40 @@
+package com.app.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderDTO {
+    private Long id;
+    private Long userId;
+    private List<ItemDTO> items;
+    @JsonMoney
+    private long total;
+    @JsonMoney
+    private long discount;
+    private String status;
+    private LocalDateTime createdAt;
+
+    public static OrderDTO fromEntity(Order order) {
+        if (order == null) return null;
+        List<ItemDTO> items = new ArrayList<>();
+        if (order.getItems() != null) {
+            order.getItems().forEach(item -> items.add(ItemDTO.fromEntity(item)));
+        }
+        return OrderDTO.builder()
+                .id(order.getId())
+                .userId(order.getUser() != null ? order.getUser().getId() : null)
+                .items(items)
+                .total(order.getTotal())
+                .discount(order.getDiscount())
+                .status(order.getStatus())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+}
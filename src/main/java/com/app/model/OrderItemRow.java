@@ -0,0 +1,19 @@
+package com.app.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the flat order/item join used to stream a user's order history without
+ * loading entities. Item columns are null for an order without items.
+ */
+public record OrderItemRow(Long orderId,
+                           long total,
+                           long discount,
+                           String status,
+                           LocalDateTime createdAt,
+                           Long itemId,
+                           String sku,
+                           String name,
+                           Integer quantity,
+                           Long price) {
+}
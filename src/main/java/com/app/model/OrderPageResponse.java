@@ -0,0 +1,15 @@
+package com.app.model;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageResponse {
+    private List<OrderDTO> orders;
+    // Opaque cursor for the next page, null on the last page
+    private String nextCursor;
+}
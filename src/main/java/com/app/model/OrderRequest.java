@@ -2,6 +2,7 @@ package com.app.model;
 
 import lombok.*;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
@@ -16,10 +17,11 @@ public class OrderRequest {
     private Long userId;
 
     @NotEmpty
-    private List<ItemDTO> items;
+    private List<@NotNull @Valid ItemDTO> items;
 
     @NotNull
-    private Double total;
+    @JsonMoney
+    private Long total;
 
     /**
      * Converts this OrderRequest to a CartRequest for rewards evaluation.
@@ -2,16 +2,26 @@ package com.app.model;
 
 import lombok.*;
 
+/**
+ * Response to a placed order: a flat view of the order, without the user or entity back-references,
+ * and the rewards applied to it.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class OrderResponse {
-    private Order order;
+    private OrderDTO order;
     private RewardsResponse rewards;
 
-    public OrderResponse(Order order, RewardsResponse rewards) {
-        this.order = order;
-        this.rewards = rewards;
+    /**
+     * Builds the response from an order that was just saved, reading only its in-memory state:
+     * the user's id and the line items the order was placed with. Nothing is loaded lazily.
+     */
+    public static OrderResponse fromPlacedOrder(Order order, RewardsResponse rewards) {
+        return OrderResponse.builder()
+                .order(OrderDTO.fromEntity(order))
+                .rewards(rewards)
+                .build();
     }
 }
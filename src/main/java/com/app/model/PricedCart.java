@@ -0,0 +1,14 @@
+package com.app.model;
+
+/**
+ * Result of pricing a cart in one pass over its items, computed once per request and passed along
+ * with the cart (see {@link CartRequest#getPricing()}, {@link SessionDTO#getPricing()}).
+ * @param subtotal the sum of price times quantity over all lines, in cents
+ * @param lines the number of cart lines
+ * @param units the sum of the quantities
+ * @param fingerprintHigh high 64 bits of the canonical cart fingerprint
+ * @param fingerprintLow low 64 bits of the canonical cart fingerprint; carts with the same lines in a
+ *                       different order have the same fingerprint
+ */
+public record PricedCart(long subtotal, int lines, int units, long fingerprintHigh, long fingerprintLow) {
+}
@@ -11,7 +11,8 @@ public class ProfileDTO {
     private String email;
     private String name;
     private int totalOrders;
-    private double totalSpent;
+    @JsonMoney
+    private long totalSpent;
     private int loyaltyPoints;
 
     public static ProfileDTO fromCartRequest(CartRequest req) {
@@ -19,4 +20,15 @@ public class ProfileDTO {
                 .integrationId(req.getUserId().toString())
                 .build();
     }
+
+    public static ProfileDTO fromUser(User user) {
+        return ProfileDTO.builder()
+                .integrationId(user.getId().toString())
+                .email(user.getEmail())
+                .name(user.getName())
+                .totalOrders(user.getTotalOrders())
+                .totalSpent(user.getTotalSpent())
+                .loyaltyPoints(user.getLoyaltyPoints())
+                .build();
+    }
 }
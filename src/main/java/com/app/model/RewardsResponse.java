@@ -2,6 +2,7 @@ package com.app.model;
 
 import lombok.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -9,9 +10,20 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 public class RewardsResponse {
-    private double totalDiscount;
+    @JsonMoney
+    private long totalDiscount;
     private List<DiscountDTO> discounts;
     private boolean loyaltyUsed;
     private int loyaltyPointsUsed;
     private int loyaltyPointsRemaining;
+
+    /**
+     * A response granting no discounts, used when Talon.One cannot be reached.
+     */
+    public static RewardsResponse none() {
+        return RewardsResponse.builder()
+                .totalDiscount(0)
+                .discounts(new ArrayList<>())
+                .build();
+    }
 }
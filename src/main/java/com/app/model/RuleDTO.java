@@ -0,0 +1,55 @@
+package com.app.model;
+
+import lombok.*;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A campaign rule mirrored from Talon.One for local evaluation.
+ * Which fields are used depends on the type:
+ * <ul>
+ *     <li>CART_PERCENTAGE - value is the percentage off the cart total</li>
+ *     <li>CART_FIXED - value is the amount off the cart total</li>
+ *     <li>SKU_PERCENTAGE - value is the percentage off every line with the given sku</li>
+ *     <li>SKU_FIXED - value is the amount off every unit with the given sku</li>
+ *     <li>LOYALTY_REDEMPTION - value is the amount one loyalty point is worth, up to maxPoints per cart</li>
+ * </ul>
+ * Every rule only applies to carts totalling at least minCartTotal.
+ * The value is exchanged as a decimal with two fraction digits and held in hundredths:
+ * cents for amounts, basis points for percentages (12.5 percent is 1250).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RuleDTO {
+    @NotBlank
+    private String code;
+
+    private String description;
+
+    @NotNull
+    private Type type;
+
+    @JsonMoney
+    private long value;
+
+    private String sku;
+
+    @JsonMoney
+    private long minCartTotal;
+
+    private Integer maxPoints;
+
+    // Rules are applied in ascending priority
+    private int priority;
+
+    public enum Type {
+        CART_PERCENTAGE,
+        CART_FIXED,
+        SKU_PERCENTAGE,
+        SKU_FIXED,
+        LOYALTY_REDEMPTION
+    }
+}
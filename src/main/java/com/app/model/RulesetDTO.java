@@ -0,0 +1,22 @@
+package com.app.model;
+
+import lombok.*;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RulesetDTO {
+    @NotBlank
+    private String version;
+
+    @NotNull
+    @Valid
+    private List<RuleDTO> rules;
+}
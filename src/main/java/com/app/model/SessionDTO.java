@@ -1,5 +1,6 @@
 package com.app.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import java.util.List;
@@ -11,13 +12,19 @@ import java.util.List;
 public class SessionDTO {
     private String integrationId; // maps to userId
     private List<ItemDTO> cartItems;
-    private double cartTotal;
+    @JsonMoney
+    private long cartTotal;
+
+    // Reused from the cart request, not sent to Talon.One
+    @JsonIgnore
+    private PricedCart pricing;
 
     public static SessionDTO fromCartRequest(CartRequest req) {
         return SessionDTO.builder()
                 .integrationId(req.getUserId().toString())
                 .cartItems(req.getItems())
-                .cartTotal(req.getTotal())
+                .cartTotal(req.getPricing() != null ? req.getPricing().subtotal() : req.getTotal())
+                .pricing(req.getPricing())
                 .build();
     }
 }
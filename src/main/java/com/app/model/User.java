@@ -1,7 +1,7 @@
 package com.app.model;
 
 import jakarta.persistence.*;
-lombok.*;
+import lombok.*;
 
 import java.util.List;
 
@@ -23,7 +23,9 @@ public class User {
 
     private int totalOrders;
 
-    private double totalSpent;
+    // In cents, see Money
+    @Column(name = "total_spent_cents")
+    private long totalSpent;
 
     private int loyaltyPoints;
 
@@ -11,7 +11,8 @@ public class UserDTO {
     private String email;
     private String name;
     private int totalOrders;
-    private double totalSpent;
+    @JsonMoney
+    private long totalSpent;
     private int loyaltyPoints;
 
     public static UserDTO fromEntity(User user) {
@@ -15,5 +15,6 @@ public class UserStatsUpdateRequest {
 
     @NotNull
     @Min(0)
-    private Double totalSpent;
+    @JsonMoney
+    private Long totalSpent;
 }
@@ -0,0 +1,86 @@
+package com.app.repository;
+
+import com.app.model.LoyaltyConfirmation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for the LoyaltyConfirmation outbox.
+ *
+ * <p>
+ * Due entries are claimed with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so several application
+ * instances can drain the outbox without picking up the same entries. Outcomes are written back with
+ * in-place updates by id rather than by merging the detached entities.
+ * </p>
+ */
+public interface LoyaltyConfirmationRepository extends JpaRepository<LoyaltyConfirmation, Long> {
+
+    /**
+     * Locks up to {@code page.getPageSize()} entries in the given status that are due at {@code now},
+     * skipping entries locked by other instances.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // A lock timeout of -2 is translated by Hibernate into SKIP LOCKED
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select c from LoyaltyConfirmation c where c.status = :status and c.nextAttemptAt <= :now "
+            + "order by c.nextAttemptAt")
+    List<LoyaltyConfirmation> lockDue(@Param("status") LoyaltyConfirmation.Status status,
+                                      @Param("now") LocalDateTime now,
+                                      Pageable page);
+
+    /**
+     * Marks the given entries confirmed in a single UPDATE. Confirmation is final, so it is applied even if
+     * another instance has leased the entry again in the meantime; Talon.One deduplicates the second call.
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update LoyaltyConfirmation c set c.status = CONFIRMED, "
+            + "c.confirmedAt = :confirmedAt, c.lastError = null where c.id in :ids")
+    int markConfirmed(@Param("ids") Collection<Long> ids, @Param("confirmedAt") LocalDateTime confirmedAt);
+
+    /**
+     * Records a failed attempt. The attempt count taken when the entry was claimed acts as the lease token:
+     * if another instance has claimed the entry since, the row is left to that instance.
+     * @return 1 if the outcome was recorded, 0 if the lease was lost or the entry was confirmed meanwhile
+     */
+    @Modifying
+    @Query("update LoyaltyConfirmation c set c.status = :status, c.nextAttemptAt = :nextAttemptAt, "
+            + "c.lastError = :lastError where c.id = :id and c.attempts = :attempts "
+            + "and c.status = PENDING")
+    int recordFailedAttempt(@Param("id") Long id,
+                            @Param("attempts") int attempts,
+                            @Param("status") LoyaltyConfirmation.Status status,
+                            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                            @Param("lastError") String lastError);
+
+    /**
+     * Releases the lease of an entry whose call was rejected without reaching Talon.One, e.g. because the
+     * circuit is open, and takes back the attempt counted when it was claimed. Like
+     * {@link #recordFailedAttempt}, the claimed attempt count is the lease token.
+     * @return 1 if the entry was released, 0 if the lease was lost or the entry was confirmed meanwhile
+     */
+    @Modifying
+    @Query("update LoyaltyConfirmation c set c.attempts = c.attempts - 1, c.nextAttemptAt = :nextAttemptAt, "
+            + "c.lastError = :lastError where c.id = :id and c.attempts = :attempts and c.status = PENDING")
+    int release(@Param("id") Long id,
+                @Param("attempts") int attempts,
+                @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                @Param("lastError") String lastError);
+
+    long countByStatus(LoyaltyConfirmation.Status status);
+
+    @Query("select min(c.createdAt) from LoyaltyConfirmation c where c.status = :status")
+    Optional<LocalDateTime> findOldestCreatedAt(@Param("status") LoyaltyConfirmation.Status status);
+}
@@ -1,7 +1,19 @@
 package com.app.repository;
 
 import com.app.model.Order;
+import com.app.model.OrderItemRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Order entity.
@@ -10,9 +22,56 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * <p>
  * This interface extends JpaRepository, enabling standard data access methods
  * such as save, findById, findAll, deleteById, etc., for the Order entity.
- * No custom query methods are defined to keep the interface clean and maintainable.
+ * A user's order history is read newest first with keyset pagination on (createdAt, id),
+ * backed by the idx_orders_user_created index, so deep pages cost the same as the first one.
+ * </p>
+ *
+ * <p>
+ * Order.user and Item.order are lazy and Order.items is a lazy collection, so every read shape that
+ * needs associations declares them here (entity graphs or join fetches) and loads them in the same query
+ * instead of one query per order.
  * </p>
  */
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    // Default query methods provided by JpaRepository are sufficient.
+
+    /**
+     * Loads several orders together with their items in one query, e.g. the items of a page of order history.
+     * The order of the result is unspecified.
+     */
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(List<Long> ids);
+
+    /**
+     * First page of a user's orders, newest first. Items are not fetched.
+     */
+    @Query("select o from Order o where o.user.id = :userId order by o.createdAt desc, o.id desc")
+    List<Order> findFirstPage(@Param("userId") Long userId, Pageable limit);
+
+    /**
+     * Page of a user's orders placed strictly before the (createdAt, id) cursor, newest first.
+     * Items are not fetched.
+     */
+    @Query("select o from Order o where o.user.id = :userId "
+            + "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) "
+            + "order by o.createdAt desc, o.id desc")
+    List<Order> findPageBefore(@Param("userId") Long userId,
+                               @Param("createdAt") LocalDateTime createdAt,
+                               @Param("id") Long id,
+                               Pageable limit);
+
+    /**
+     * Streams a user's orders joined with their items as flat rows, newest order first and the
+     * items of an order on consecutive rows. Rows are read from a database cursor and no entities
+     * are loaded, so memory stays constant regardless of the number of orders.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.app.model.OrderItemRow(o.id, o.total, o.discount, o.status, o.createdAt, "
+            + "i.id, i.sku, i.name, i.quantity, i.price) "
+            + "from Order o left join o.items i where o.user.id = :userId "
+            + "order by o.createdAt desc, o.id desc, i.id")
+    Stream<OrderItemRow> streamWithItems(@Param("userId") Long userId);
 }
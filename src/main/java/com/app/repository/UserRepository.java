@@ -1,7 +1,14 @@
 package com.app.repository;
 
 import com.app.model.User;
+import com.app.model.UserDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 /**
  * Repository interface for User entity.
@@ -10,9 +17,59 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * <p>
  * This interface extends JpaRepository, enabling standard data access methods
  * such as save, findById, findAll, deleteById, etc., for the User entity.
- * No custom query methods are defined to keep the interface clean and maintainable.
+ * Order statistics and redeemed loyalty points are updated in place by {@link #incrementOrderStats} rather than
+ * through a read-modify-write of the entity.
  * </p>
  */
 public interface UserRepository extends JpaRepository<User, Long> {
-    // Default query methods provided by JpaRepository are sufficient.
+
+    /**
+     * Reads only the columns exposed by {@link UserDTO} straight into the DTO, without hydrating
+     * the entity or its orders collection.
+     * @param id the user id
+     * @return the user view, or empty if the user does not exist
+     */
+    @Query("select new com.app.model.UserDTO(u.id, u.email, u.name, u.totalOrders, u.totalSpent, u.loyaltyPoints) "
+            + "from User u where u.id = :id")
+    Optional<UserDTO> findDtoById(@Param("id") Long id);
+
+    /**
+     * Atomically adds one order and its amount to the user's statistics in a single UPDATE,
+     * without loading the entity. Concurrent orders of the same user cannot lose updates.
+     * Users already loaded in the persistence context are not refreshed.
+     * @param id the user id
+     * @param amount the order total in cents to add to totalSpent
+     * @return the number of updated rows, 0 if the user does not exist
+     */
+    default int incrementOrderStats(Long id, long amount) {
+        return incrementOrderStats(id, 1, amount);
+    }
+
+    /**
+     * Atomically adds several orders of the same user to their statistics, e.g. for a batch import.
+     * @param id the user id
+     * @param orders the number of orders to add to totalOrders
+     * @param amount the sum of the order totals in cents to add to totalSpent
+     * @return the number of updated rows, 0 if the user does not exist
+     */
+    default int incrementOrderStats(Long id, int orders, long amount) {
+        return incrementOrderStats(id, orders, amount, 0);
+    }
+
+    /**
+     * Atomically adds orders to the user's statistics and deducts the loyalty points they redeemed.
+     * The update only applies if the user still has the points, so concurrent orders cannot redeem
+     * the same points twice.
+     * @param id the user id
+     * @param orders the number of orders to add to totalOrders
+     * @param amount the sum of the order totals in cents to add to totalSpent
+     * @param loyaltyPoints the loyalty points redeemed by the orders
+     * @return the number of updated rows, 0 if the user does not exist or has fewer points left
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.totalOrders = u.totalOrders + :orders, u.totalSpent = u.totalSpent + :amount, "
+            + "u.loyaltyPoints = u.loyaltyPoints - :points where u.id = :id and u.loyaltyPoints >= :points")
+    int incrementOrderStats(@Param("id") Long id, @Param("orders") int orders, @Param("amount") long amount,
+                            @Param("points") int loyaltyPoints);
 }
@@ -0,0 +1,80 @@
+package com.app.rules;
+
+import com.app.model.ItemDTO;
+import com.app.model.Money;
+import com.app.model.RuleDTO;
+
+/**
+ * Validated, immutable form of a {@link RuleDTO}.
+ * Amounts are in cents and percentages in basis points, so evaluation is exact integer arithmetic.
+ */
+record CompiledRule(String code, String description, RuleDTO.Type type, long value, String sku,
+                    long minCartTotal, int maxPoints, int priority) {
+
+    /**
+     * @throws IllegalArgumentException if the rule is incomplete or its values are out of range
+     */
+    static CompiledRule compile(RuleDTO dto) {
+        if (dto.getCode() == null || dto.getCode().isBlank() || dto.getType() == null) {
+            throw new IllegalArgumentException("Rule code and type are required");
+        }
+        if (dto.getValue() < 0 || dto.getMinCartTotal() < 0) {
+            throw new IllegalArgumentException("Rule " + dto.getCode() + " must not have negative values");
+        }
+        boolean percentage = dto.getType() == RuleDTO.Type.CART_PERCENTAGE || dto.getType() == RuleDTO.Type.SKU_PERCENTAGE;
+        if (percentage && dto.getValue() > 10_000) {
+            throw new IllegalArgumentException("Rule " + dto.getCode() + " exceeds 100 percent");
+        }
+        boolean skuRule = dto.getType() == RuleDTO.Type.SKU_PERCENTAGE || dto.getType() == RuleDTO.Type.SKU_FIXED;
+        if (skuRule && (dto.getSku() == null || dto.getSku().isBlank())) {
+            throw new IllegalArgumentException("Rule " + dto.getCode() + " requires a sku");
+        }
+        int maxPoints = dto.getMaxPoints() != null ? dto.getMaxPoints() : Integer.MAX_VALUE;
+        return new CompiledRule(dto.getCode(), dto.getDescription(), dto.getType(), dto.getValue(),
+                skuRule ? dto.getSku().intern() : null, dto.getMinCartTotal(), maxPoints, dto.getPriority());
+    }
+
+    /**
+     * @return true if the rule discounts the lines of one sku rather than the whole cart
+     */
+    boolean isSkuRule() {
+        return sku != null;
+    }
+
+    /**
+     * Applies the rule to the cart and records the granted discount in the evaluation.
+     * @param cartTotal the cart total
+     * @param skuAmount for sku rules, the price of all cart lines with the rule's sku
+     * @param skuUnits for sku rules, the quantity of all cart lines with the rule's sku
+     * @param evaluation the evaluation in progress
+     */
+    void apply(long cartTotal, long skuAmount, int skuUnits, Evaluation evaluation) {
+        if (cartTotal < minCartTotal || evaluation.remaining() <= 0) {
+            return;
+        }
+        switch (type) {
+            case CART_PERCENTAGE -> evaluation.grant(this, Money.percentage(cartTotal, value));
+            case CART_FIXED -> evaluation.grant(this, value);
+            case SKU_PERCENTAGE -> evaluation.grant(this, Money.percentage(skuAmount, value));
+            case SKU_FIXED -> evaluation.grant(this, Money.times(value, skuUnits));
+            case LOYALTY_REDEMPTION -> {
+                if (value <= 0) {
+                    return;
+                }
+                int affordable = (int) Math.min(evaluation.remaining() / value, Integer.MAX_VALUE);
+                int points = Math.min(Math.min(evaluation.pointsAvailable(), maxPoints), affordable);
+                if (points > 0) {
+                    evaluation.redeem(this, points, Money.times(value, points));
+                }
+            }
+        }
+    }
+
+    static long price(ItemDTO item) {
+        return item.getPrice() != null ? item.getPrice() : 0L;
+    }
+
+    static int quantity(ItemDTO item) {
+        return item.getQuantity() != null ? item.getQuantity() : 0;
+    }
+}
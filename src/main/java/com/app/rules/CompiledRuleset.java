@@ -0,0 +1,145 @@
+package com.app.rules;
+
+import com.app.model.ItemDTO;
+import com.app.model.Money;
+import com.app.model.RewardsResponse;
+import com.app.model.RuleDTO;
+import com.app.model.RulesetDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable, validated set of campaign rules, ready to evaluate carts concurrently.
+ * Rules are applied in ascending priority. Percentage rules are computed on the full cart total (or the full amount
+ * of their sku), not on what earlier rules left; every discount is then capped at the remainder of the cart total,
+ * so the cart never goes below zero.
+ *
+ * <p>
+ * Sku rules are indexed by sku when the ruleset is compiled, so a cart is matched in one pass over its items:
+ * the cost depends on the cart size and the rules that actually match, not on the number of active promotions.
+ * </p>
+ */
+public final class CompiledRuleset {
+
+    private final String version;
+    // All rules in priority order; rules are referred to by their position in this array
+    private final CompiledRule[] rules;
+    // Positions of the rules applying to the whole cart, ascending
+    private final int[] cartRules;
+    // Positions of the sku rules per (interned) sku, ascending
+    private final Map<String, int[]> rulesBySku;
+
+    private CompiledRuleset(String version, CompiledRule[] rules, int[] cartRules, Map<String, int[]> rulesBySku) {
+        this.version = version;
+        this.rules = rules;
+        this.cartRules = cartRules;
+        this.rulesBySku = rulesBySku;
+    }
+
+    /**
+     * Validates and compiles the ruleset.
+     * @param dto the ruleset as received from the rules endpoint
+     * @return the compiled ruleset
+     * @throws IllegalArgumentException if the ruleset or one of its rules is invalid
+     */
+    public static CompiledRuleset compile(RulesetDTO dto) {
+        if (dto == null || dto.getVersion() == null || dto.getVersion().isBlank() || dto.getRules() == null) {
+            throw new IllegalArgumentException("Ruleset version and rules are required");
+        }
+        List<CompiledRule> compiled = new ArrayList<>(dto.getRules().size());
+        Set<String> codes = new HashSet<>();
+        for (RuleDTO rule : dto.getRules()) {
+            if (rule == null) {
+                throw new IllegalArgumentException("Ruleset must not contain null rules");
+            }
+            CompiledRule compiledRule = CompiledRule.compile(rule);
+            if (!codes.add(compiledRule.code())) {
+                throw new IllegalArgumentException("Duplicate rule code: " + compiledRule.code());
+            }
+            compiled.add(compiledRule);
+        }
+        compiled.sort(Comparator.comparingInt(CompiledRule::priority));
+        CompiledRule[] rules = compiled.toArray(new CompiledRule[0]);
+
+        List<Integer> cartRules = new ArrayList<>();
+        Map<String, List<Integer>> skuRules = new HashMap<>();
+        for (int position = 0; position < rules.length; position++) {
+            if (rules[position].isSkuRule()) {
+                skuRules.computeIfAbsent(rules[position].sku(), sku -> new ArrayList<>()).add(position);
+            } else {
+                cartRules.add(position);
+            }
+        }
+        Map<String, int[]> rulesBySku = new HashMap<>(skuRules.size() * 2);
+        skuRules.forEach((sku, positions) -> rulesBySku.put(sku, toArray(positions)));
+        return new CompiledRuleset(dto.getVersion(), rules, toArray(cartRules), Map.copyOf(rulesBySku));
+    }
+
+    /**
+     * Evaluates a cart.
+     * @param items the cart items
+     * @param cartTotal the cart total the discounts apply to, in cents
+     * @param loyaltyPoints the loyalty points the user can redeem
+     * @return the discounts in the same shape as returned by Talon.One
+     */
+    public RewardsResponse evaluate(List<ItemDTO> items, long cartTotal, int loyaltyPoints) {
+        Evaluation evaluation = new Evaluation(cartTotal, loyaltyPoints);
+        SkuMatches matches = match(items);
+
+        // Merge the matched sku rules and the cart rules, both sorted by position, to keep priority order
+        int next = 0;
+        for (int c = 0; c <= cartRules.length; c++) {
+            int limit = c < cartRules.length ? cartRules[c] : rules.length;
+            for (; next < matches.size() && matches.position(next) < limit; next++) {
+                rules[matches.position(next)].apply(cartTotal, matches.amount(next), matches.units(next), evaluation);
+            }
+            if (c < cartRules.length) {
+                rules[cartRules[c]].apply(cartTotal, 0, 0, evaluation);
+            }
+        }
+        return evaluation.toResponse();
+    }
+
+    /**
+     * Finds the sku rules matching the cart in a single pass over its items.
+     */
+    private SkuMatches match(List<ItemDTO> items) {
+        if (rulesBySku.isEmpty() || items == null) {
+            return SkuMatches.NONE;
+        }
+        SkuMatches matches = null;
+        for (ItemDTO item : items) {
+            int[] positions = item.getSku() != null ? rulesBySku.get(item.getSku()) : null;
+            if (positions == null) {
+                continue;
+            }
+            if (matches == null) {
+                matches = new SkuMatches(8);
+            }
+            int quantity = CompiledRule.quantity(item);
+            long amount = Money.times(CompiledRule.price(item), quantity);
+            for (int position : positions) {
+                matches.add(position, amount, quantity);
+            }
+        }
+        return matches != null ? matches : SkuMatches.NONE;
+    }
+
+    private static int[] toArray(List<Integer> positions) {
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return rules.length;
+    }
+}
@@ -0,0 +1,58 @@
+package com.app.rules;
+
+import com.app.model.DiscountDTO;
+import com.app.model.RewardsResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mutable state of one cart evaluation: the discounts granted so far and the amount still discountable,
+ * both in cents. Discounts never take the cart below zero.
+ */
+final class Evaluation {
+
+    private final int loyaltyPoints;
+    private final List<DiscountDTO> discounts = new ArrayList<>();
+    private long remaining;
+    private long totalDiscount;
+    private int pointsUsed;
+
+    Evaluation(long cartTotal, int loyaltyPoints) {
+        this.remaining = Math.max(cartTotal, 0);
+        this.loyaltyPoints = Math.max(loyaltyPoints, 0);
+    }
+
+    long remaining() {
+        return remaining;
+    }
+
+    int pointsAvailable() {
+        return loyaltyPoints - pointsUsed;
+    }
+
+    void grant(CompiledRule rule, long amount) {
+        long granted = Math.min(amount, remaining);
+        if (granted <= 0) {
+            return;
+        }
+        remaining -= granted;
+        totalDiscount += granted;
+        discounts.add(new DiscountDTO(rule.code(), rule.description(), granted));
+    }
+
+    void redeem(CompiledRule rule, int points, long amount) {
+        pointsUsed += points;
+        grant(rule, amount);
+    }
+
+    RewardsResponse toResponse() {
+        return RewardsResponse.builder()
+                .totalDiscount(totalDiscount)
+                .discounts(discounts)
+                .loyaltyUsed(pointsUsed > 0)
+                .loyaltyPointsUsed(pointsUsed)
+                .loyaltyPointsRemaining(loyaltyPoints - pointsUsed)
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.app.rules;
+
+import com.app.model.CartRequest;
+import com.app.model.DiscountDTO;
+import com.app.model.Money;
+import com.app.model.RewardsResponse;
+import com.app.model.RulesetDTO;
+import com.app.model.User;
+import com.app.service.CartPricer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * In-process evaluation of the supported subset of Talon.One campaign rules (see {@link com.app.model.RuleDTO}).
+ * Talon.One stays the source of truth: the ruleset mirrors its campaigns and is replaced as a whole through
+ * {@link #load}. Carts being evaluated keep using the ruleset they started with, so a reload never exposes
+ * a half-applied change.
+ *
+ * <p>
+ * Metrics: {@code rewards.rules.evaluate} (local evaluation time), {@code rewards.rules.shadow}
+ * (tag {@code result}: match, diverged, unavailable) and {@code rewards.rules.shadow.difference}
+ * (absolute difference of the total discount for diverging carts).
+ * </p>
+ */
+@Slf4j
+@Service
+public class LocalRulesEngine {
+
+    private final AtomicReference<CompiledRuleset> ruleset = new AtomicReference<>();
+
+    private final Timer evaluations;
+    private final Counter matches;
+    private final Counter divergences;
+    private final Counter unavailable;
+    private final DistributionSummary difference;
+
+    public LocalRulesEngine(MeterRegistry meterRegistry) {
+        this.evaluations = meterRegistry.timer("rewards.rules.evaluate");
+        this.matches = meterRegistry.counter("rewards.rules.shadow", "result", "match");
+        this.divergences = meterRegistry.counter("rewards.rules.shadow", "result", "diverged");
+        this.unavailable = meterRegistry.counter("rewards.rules.shadow", "result", "unavailable");
+        this.difference = DistributionSummary.builder("rewards.rules.shadow.difference")
+                .description("Absolute difference between the local and the Talon.One total discount")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compiles the ruleset and atomically replaces the current one.
+     * @param dto the ruleset mirrored from Talon.One
+     * @return the compiled ruleset now in use
+     * @throws IllegalArgumentException if the ruleset is invalid; the current ruleset is kept then
+     */
+    public CompiledRuleset load(RulesetDTO dto) {
+        CompiledRuleset compiled = CompiledRuleset.compile(dto);
+        CompiledRuleset previous = ruleset.getAndSet(compiled);
+        log.info("Loaded ruleset {} with {} rules (replacing {})", compiled.getVersion(), compiled.size(),
+                previous != null ? previous.getVersion() : "none");
+        return compiled;
+    }
+
+    /**
+     * @return the ruleset in use, empty until one has been loaded
+     */
+    public Optional<CompiledRuleset> current() {
+        return Optional.ofNullable(ruleset.get());
+    }
+
+    /**
+     * Evaluates the cart with the current ruleset.
+     * @param req the cart
+     * @param user the user placing the cart, or null if unknown (no loyalty points can be redeemed then)
+     * @return the rewards, empty if no ruleset is loaded
+     */
+    public Optional<RewardsResponse> evaluate(CartRequest req, User user) {
+        CompiledRuleset current = ruleset.get();
+        return current != null ? Optional.of(evaluate(current, req, user)) : Optional.empty();
+    }
+
+    /**
+     * Evaluates the cart locally and compares the result with the one returned by Talon.One.
+     * @param req the cart
+     * @param user the user placing the cart, or null if unknown
+     * @param remote the rewards returned by Talon.One
+     */
+    public void shadow(CartRequest req, User user, RewardsResponse remote) {
+        CompiledRuleset current = ruleset.get();
+        if (current == null || remote == null) {
+            unavailable.increment();
+            return;
+        }
+        RewardsResponse local;
+        try {
+            local = evaluate(current, req, user);
+        } catch (RuntimeException ex) {
+            log.warn("Local evaluation failed in shadow mode", ex);
+            unavailable.increment();
+            return;
+        }
+        long delta = Math.abs(local.getTotalDiscount() - remote.getTotalDiscount());
+        if (delta == 0 && local.getLoyaltyPointsUsed() == remote.getLoyaltyPointsUsed()) {
+            matches.increment();
+            return;
+        }
+        divergences.increment();
+        difference.record(Money.toDouble(delta));
+        log.debug("Local ruleset {} diverges for user {}: local {} {}, Talon.One {} {}",
+                current.getVersion(), req.getUserId(),
+                Money.format(local.getTotalDiscount()), codes(local.getDiscounts()),
+                Money.format(remote.getTotalDiscount()), codes(remote.getDiscounts()));
+    }
+
+    private RewardsResponse evaluate(CompiledRuleset current, CartRequest req, User user) {
+        int loyaltyPoints = user != null ? user.getLoyaltyPoints() : 0;
+        // Discounts apply to the server-computed subtotal, never to the total declared by the client
+        long subtotal = req.getPricing() != null
+                ? req.getPricing().subtotal()
+                : CartPricer.price(req.getItems()).subtotal();
+        return evaluations.record(() -> current.evaluate(req.getItems(), subtotal, loyaltyPoints));
+    }
+
+    private static String codes(List<DiscountDTO> discounts) {
+        if (discounts == null) {
+            return "[]";
+        }
+        return discounts.stream().map(DiscountDTO::getCode).collect(Collectors.joining(",", "[", "]"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.app.rules;
+
+/**
+ * Controls whether carts are evaluated by Talon.One or by the {@link LocalRulesEngine}.
+ * Configured with talonone.rules.mode.
+ */
+public enum RulesMode {
+
+    /**
+     * Evaluate every cart with Talon.One only.
+     */
+    OFF,
+
+    /**
+     * Serve the Talon.One result, but also evaluate the cart locally and report divergences.
+     * Used to build trust in the local ruleset before serving from it.
+     */
+    SHADOW,
+
+    /**
+     * Serve the local result without calling Talon.One. Falls back to Talon.One while no ruleset is loaded.
+     */
+    LOCAL
+}
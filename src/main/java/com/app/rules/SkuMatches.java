@@ -0,0 +1,62 @@
+package com.app.rules;
+
+import java.util.Arrays;
+
+/**
+ * The sku rules matched by one cart, kept sorted by rule position, with the amount and units
+ * of the cart lines each rule matched. Lines sharing a sku are accumulated into the same entry.
+ */
+final class SkuMatches {
+
+    static final SkuMatches NONE = new SkuMatches(0);
+
+    private int[] positions;
+    private long[] amounts;
+    private int[] units;
+    private int size;
+
+    SkuMatches(int capacity) {
+        this.positions = new int[capacity];
+        this.amounts = new long[capacity];
+        this.units = new int[capacity];
+    }
+
+    void add(int position, long amount, int quantity) {
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        if (index >= 0) {
+            amounts[index] += amount;
+            units[index] += quantity;
+            return;
+        }
+        index = -index - 1;
+        if (size == positions.length) {
+            int capacity = Math.max(8, size * 2);
+            positions = Arrays.copyOf(positions, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            units = Arrays.copyOf(units, capacity);
+        }
+        System.arraycopy(positions, index, positions, index + 1, size - index);
+        System.arraycopy(amounts, index, amounts, index + 1, size - index);
+        System.arraycopy(units, index, units, index + 1, size - index);
+        positions[index] = position;
+        amounts[index] = amount;
+        units[index] = quantity;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int position(int index) {
+        return positions[index];
+    }
+
+    long amount(int index) {
+        return amounts[index];
+    }
+
+    int units(int index) {
+        return units[index];
+    }
+}
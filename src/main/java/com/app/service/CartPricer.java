@@ -0,0 +1,95 @@
+package com.app.service;
+
+import com.app.model.ItemDTO;
+import com.app.model.Money;
+import com.app.model.PricedCart;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Computes the subtotal, line counts and canonical fingerprint of a cart in a single pass over its items,
+ * and checks the total sent by the client against it. The result is attached to the cart and reused for
+ * the Talon.One session, the session cache key and the persisted order total.
+ *
+ * <p>
+ * The fingerprint is the sum of a 128-bit hash per line (sku, quantity, price), so it does not depend on the
+ * order of the lines and needs no sorting or key building.
+ * </p>
+ *
+ * <p>
+ * Metrics: {@code cart.total.mismatch} (carts rejected because the declared total was wrong).
+ * </p>
+ */
+@Component
+public class CartPricer {
+
+    private final Counter mismatches;
+
+    public CartPricer(MeterRegistry meterRegistry) {
+        this.mismatches = meterRegistry.counter("cart.total.mismatch");
+    }
+
+    /**
+     * Prices the cart and validates the declared total.
+     * @param items the cart items
+     * @param declaredTotal the total sent by the client in cents, or null to accept the computed total
+     * @return the priced cart
+     * @throws CartTotalMismatchException if the declared total differs from the items total
+     * @throws ArithmeticException if the subtotal or the number of units overflows
+     */
+    public PricedCart price(List<ItemDTO> items, Long declaredTotal) {
+        PricedCart priced = price(items);
+        if (declaredTotal != null && declaredTotal != priced.subtotal()) {
+            mismatches.increment();
+            throw new CartTotalMismatchException(declaredTotal, priced.subtotal());
+        }
+        return priced;
+    }
+
+    /**
+     * Prices the cart without validation. Items without price or quantity count as zero.
+     * @param items the cart items, may be null
+     * @return the priced cart
+     * @throws ArithmeticException if the subtotal or the number of units overflows
+     */
+    public static PricedCart price(List<ItemDTO> items) {
+        long subtotal = 0;
+        int units = 0;
+        long high = 0;
+        long low = 0;
+        int lines = items != null ? items.size() : 0;
+        for (int i = 0; i < lines; i++) {
+            ItemDTO item = items.get(i);
+            long price = item.getPrice() != null ? item.getPrice() : 0L;
+            int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+            subtotal = Math.addExact(subtotal, Money.times(price, quantity));
+            units = Math.addExact(units, quantity);
+
+            long h1 = 0xcbf29ce484222325L;
+            long h2 = 0x84222325cbf29ce4L;
+            String sku = item.getSku();
+            int length = sku != null ? sku.length() : -1;
+            for (int c = 0; c < length; c++) {
+                h1 = (h1 ^ sku.charAt(c)) * 0x100000001b3L;
+                h2 = (h2 ^ sku.charAt(c)) * 0x9e3779b97f4a7c15L;
+            }
+            long line = ((long) length << 32) ^ quantity;
+            // Sum the line hashes: commutative, and equal lines do not cancel out as with xor
+            high += mix(h1 ^ mix(line) ^ price);
+            low += mix(h2 ^ mix(price + 0x632be59bd9b4e019L) ^ line);
+        }
+        return new PricedCart(subtotal, lines, units, high, low);
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,27 @@
+package com.app.service;
+
+import com.app.model.Money;
+
+/**
+ * Thrown when the total sent by the client does not match the total computed from the cart items.
+ */
+public class CartTotalMismatchException extends RuntimeException {
+
+    private final long declaredTotal;
+    private final long computedTotal;
+
+    public CartTotalMismatchException(long declaredTotal, long computedTotal) {
+        super("Cart total " + Money.format(declaredTotal) + " does not match the items total "
+                + Money.format(computedTotal));
+        this.declaredTotal = declaredTotal;
+        this.computedTotal = computedTotal;
+    }
+
+    public long getDeclaredTotal() {
+        return declaredTotal;
+    }
+
+    public long getComputedTotal() {
+        return computedTotal;
+    }
+}
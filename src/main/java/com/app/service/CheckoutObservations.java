@@ -0,0 +1,75 @@
+package com.app.service;
+
+import com.app.talonone.TalonOneUnavailableException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Observes the stages of a checkout, so a slow POST /orders can be attributed to pricing, the user lookup,
+ * rewards evaluation or one of the writes.
+ * Each stage is a Micrometer observation named {@code checkout.stage}: a timer tagged with {@code stage} and
+ * {@code outcome} (success, not_found, rejected, unavailable, error), and a trace span nested in the request
+ * span when a tracing bridge is on the classpath. Histogram buckets are enabled in
+ * {@link com.app.config.ObservabilityConfig}.
+ */
+@Component
+public class CheckoutObservations {
+
+    static final String NAME = "checkout.stage";
+
+    private final ObservationRegistry observationRegistry;
+
+    public CheckoutObservations(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Runs one checkout stage inside an observation.
+     * @param stage the stage name, used as tag value
+     * @param call the work of the stage
+     * @return the result of the call
+     */
+    public <T> T stage(String stage, Supplier<T> call) {
+        Observation observation = Observation.createNotStarted(NAME, observationRegistry)
+                .lowCardinalityKeyValue("stage", stage)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            T result = call.get();
+            observation.lowCardinalityKeyValue("outcome", "success");
+            return result;
+        } catch (RuntimeException ex) {
+            observation.lowCardinalityKeyValue("outcome", outcome(ex));
+            observation.error(ex);
+            throw ex;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Runs one checkout stage without a result inside an observation.
+     */
+    public void stage(String stage, Runnable call) {
+        stage(stage, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private static String outcome(RuntimeException ex) {
+        if (ex instanceof NoSuchElementException) {
+            return "not_found";
+        }
+        if (ex instanceof CartTotalMismatchException) {
+            return "rejected";
+        }
+        if (ex instanceof TalonOneUnavailableException) {
+            return "unavailable";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,25 @@
+package com.app.service;
+
+/**
+ * Thrown when an order redeems more loyalty points than the user has left, typically because another
+ * order of the same user redeemed them since the rewards were evaluated.
+ */
+public class InsufficientLoyaltyPointsException extends RuntimeException {
+
+    private final long userId;
+    private final int points;
+
+    public InsufficientLoyaltyPointsException(long userId, int points) {
+        super("User " + userId + " no longer has the " + points + " loyalty points redeemed by the order");
+        this.userId = userId;
+        this.points = points;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+}
@@ -0,0 +1,295 @@
+package com.app.service;
+
+import com.app.config.ExecutorFactory;
+import com.app.model.LoyaltyConfirmation;
+import com.app.repository.LoyaltyConfirmationRepository;
+import com.app.talonone.TalonOneUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background dispatcher draining the loyalty confirmation outbox.
+ * Orders record a {@link LoyaltyConfirmation} in the same transaction as the order itself; this dispatcher
+ * claims due entries in batches, confirms them against Talon.One with bounded concurrency and retries
+ * failures with exponential backoff. Every call carries the entry's idempotency key, so a confirmation
+ * retried after a timeout is applied once.
+ *
+ * <p>
+ * Claimed entries are leased by moving their next attempt into the future; if the instance dies
+ * mid-batch, the entries become due again once the lease expires. The attempt count taken at claim time
+ * doubles as the lease token: a failed attempt is only recorded if nobody has claimed the entry since.
+ * Outcomes are written back with in-place updates by id, never by merging the claimed entities.
+ * </p>
+ *
+ * <p>
+ * Only calls that reached Talon.One use up attempts. A call rejected without being sent, because the
+ * loyalty circuit is open or its bulkhead full, releases the lease and gives the attempt back, and the
+ * entry is retried after the base backoff; an outage, however long, never marks entries FAILED.
+ * </p>
+ *
+ * <p>
+ * Configuration properties (optional):
+ * <ul>
+ *     <li>talonone.loyalty-outbox.poll-interval-ms=1000</li>
+ *     <li>talonone.loyalty-outbox.batch-size=100</li>
+ *     <li>talonone.loyalty-outbox.concurrency=8</li>
+ *     <li>talonone.loyalty-outbox.lease-seconds=60</li>
+ *     <li>talonone.loyalty-outbox.max-attempts=10 - after this many failed calls, the entry is marked FAILED</li>
+ *     <li>talonone.loyalty-outbox.backoff-base-ms=1000 and backoff-max-ms=300000</li>
+ * </ul>
+ * Metrics: {@code loyalty.outbox.depth} (pending entries), {@code loyalty.outbox.oldest.age} (seconds),
+ * {@code loyalty.confirmation.lag} (order to confirmation) and {@code loyalty.confirmation.attempts}
+ * (tag {@code outcome}: confirmed, retried, failed, deferred).
+ * </p>
+ */
+@Slf4j
+@Service
+public class LoyaltyConfirmationDispatcher implements DisposableBean {
+
+    private final LoyaltyConfirmationRepository repository;
+    private final RewardsService rewardsService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService dispatchExecutor;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final Timer lag;
+    private final Counter confirmed;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter deferred;
+
+    public LoyaltyConfirmationDispatcher(LoyaltyConfirmationRepository repository,
+                                         RewardsService rewardsService,
+                                         TransactionTemplate transactionTemplate,
+                                         MeterRegistry meterRegistry,
+                                         ExecutorFactory executorFactory,
+                                         @Value("${talonone.loyalty-outbox.batch-size:100}") int batchSize,
+                                         @Value("${talonone.loyalty-outbox.concurrency:8}") int concurrency,
+                                         @Value("${talonone.loyalty-outbox.lease-seconds:60}") long leaseSeconds,
+                                         @Value("${talonone.loyalty-outbox.max-attempts:10}") int maxAttempts,
+                                         @Value("${talonone.loyalty-outbox.backoff-base-ms:1000}") long backoffBaseMs,
+                                         @Value("${talonone.loyalty-outbox.backoff-max-ms:300000}") long backoffMaxMs) {
+        this.repository = repository;
+        this.rewardsService = rewardsService;
+        this.transactionTemplate = transactionTemplate;
+        this.dispatchExecutor = executorFactory.bounded("loyalty-outbox-", concurrency);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.backoffBase = Duration.ofMillis(backoffBaseMs);
+        this.backoffMax = Duration.ofMillis(backoffMaxMs);
+
+        Gauge.builder("loyalty.outbox.depth", depth, AtomicLong::get)
+                .description("Loyalty confirmations waiting to be sent to Talon.One")
+                .register(meterRegistry);
+        Gauge.builder("loyalty.outbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.lag = Timer.builder("loyalty.confirmation.lag")
+                .description("Time from order placement to confirmed loyalty usage")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.confirmed = meterRegistry.counter("loyalty.confirmation.attempts", "outcome", "confirmed");
+        this.retried = meterRegistry.counter("loyalty.confirmation.attempts", "outcome", "retried");
+        this.failed = meterRegistry.counter("loyalty.confirmation.attempts", "outcome", "failed");
+        this.deferred = meterRegistry.counter("loyalty.confirmation.attempts", "outcome", "deferred");
+    }
+
+    /**
+     * Drains due outbox entries until a batch comes back smaller than the batch size.
+     */
+    @Scheduled(fixedDelayString = "${talonone.loyalty-outbox.poll-interval-ms:1000}")
+    public void dispatchDue() {
+        List<LoyaltyConfirmation> batch;
+        boolean interrupted = false;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                Dispatch dispatch = dispatch(batch);
+                complete(dispatch.outcomes());
+                interrupted = dispatch.interrupted();
+            }
+        } while (batch.size() == batchSize && !interrupted);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        refreshGauges();
+    }
+
+    /**
+     * Locks a batch of due entries and leases them to this instance.
+     */
+    private List<LoyaltyConfirmation> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<LoyaltyConfirmation> due = repository.lockDue(
+                    LoyaltyConfirmation.Status.PENDING, now, PageRequest.of(0, batchSize));
+            for (LoyaltyConfirmation confirmation : due) {
+                confirmation.setAttempts(confirmation.getAttempts() + 1);
+                confirmation.setNextAttemptAt(now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    /**
+     * Sends the batch to Talon.One with bounded concurrency and collects the outcome of each entry.
+     * If interrupted, the calls still queued or running are cancelled and only finished outcomes are returned;
+     * the other entries stay leased and are retried once the lease expires.
+     */
+    private Dispatch dispatch(List<LoyaltyConfirmation> batch) {
+        List<Future<Outcome>> futures = new ArrayList<>(batch.size());
+        for (LoyaltyConfirmation confirmation : batch) {
+            futures.add(dispatchExecutor.submit(() -> send(confirmation)));
+        }
+        boolean interrupted = false;
+        List<Outcome> outcomes = new ArrayList<>(futures.size());
+        for (Future<Outcome> future : futures) {
+            if (interrupted) {
+                future.cancel(true);
+            }
+            try {
+                if (!interrupted || (future.isDone() && !future.isCancelled())) {
+                    outcomes.add(future.get());
+                }
+            } catch (InterruptedException ex) {
+                interrupted = true;
+                future.cancel(true);
+            } catch (ExecutionException ex) {
+                log.error("Loyalty confirmation dispatch failed", ex.getCause());
+            }
+        }
+        return new Dispatch(outcomes, interrupted);
+    }
+
+    /**
+     * Confirms one entry against Talon.One. Works on the values read at claim time and leaves the entity
+     * untouched, so nothing is written to it concurrently with {@link #complete}.
+     */
+    private Outcome send(LoyaltyConfirmation confirmation) {
+        int attempts = confirmation.getAttempts();
+        try {
+            rewardsService.confirmLoyalty(confirmation.getUserId(), confirmation.getAmount(),
+                    confirmation.getIdempotencyKey());
+            lag.record(Duration.between(confirmation.getCreatedAt(), LocalDateTime.now()));
+            confirmed.increment();
+            return new Outcome(confirmation.getId(), attempts, LoyaltyConfirmation.Status.CONFIRMED, null, null, false);
+        } catch (TalonOneUnavailableException ex) {
+            // Never sent, so Talon.One's health says nothing about this entry
+            deferred.increment();
+            log.debug("Loyalty confirmation {} deferred: {}", confirmation.getIdempotencyKey(), ex.getMessage());
+            return new Outcome(confirmation.getId(), attempts, LoyaltyConfirmation.Status.PENDING,
+                    LocalDateTime.now().plus(backoffBase), truncate(ex.getMessage()), true);
+        } catch (RuntimeException ex) {
+            String lastError = truncate(ex.getMessage());
+            if (attempts >= maxAttempts) {
+                failed.increment();
+                log.error("Giving up on loyalty confirmation {} after {} attempts",
+                        confirmation.getIdempotencyKey(), attempts, ex);
+                return new Outcome(confirmation.getId(), attempts, LoyaltyConfirmation.Status.FAILED,
+                        confirmation.getNextAttemptAt(), lastError, false);
+            }
+            retried.increment();
+            log.warn("Loyalty confirmation {} failed (attempt {}), retrying: {}",
+                    confirmation.getIdempotencyKey(), attempts, ex.getMessage());
+            return new Outcome(confirmation.getId(), attempts, LoyaltyConfirmation.Status.PENDING,
+                    LocalDateTime.now().plus(backoff(attempts)), lastError, false);
+        }
+    }
+
+    /**
+     * Writes the outcomes back: one UPDATE for all confirmed entries and one per failed or deferred entry,
+     * without reading the rows again.
+     */
+    private void complete(List<Outcome> outcomes) {
+        List<Long> confirmedIds = new ArrayList<>(outcomes.size());
+        for (Outcome outcome : outcomes) {
+            if (outcome.status() == LoyaltyConfirmation.Status.CONFIRMED) {
+                confirmedIds.add(outcome.id());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!confirmedIds.isEmpty()) {
+                repository.markConfirmed(confirmedIds, LocalDateTime.now());
+            }
+            for (Outcome outcome : outcomes) {
+                if (outcome.status() == LoyaltyConfirmation.Status.CONFIRMED) {
+                    continue;
+                }
+                int updated = outcome.deferred()
+                        ? repository.release(outcome.id(), outcome.attempts(), outcome.nextAttemptAt(),
+                        outcome.lastError())
+                        : repository.recordFailedAttempt(outcome.id(), outcome.attempts(), outcome.status(),
+                        outcome.nextAttemptAt(), outcome.lastError());
+                if (updated == 0) {
+                    log.debug("Loyalty confirmation {} was claimed again before its outcome was recorded",
+                            outcome.id());
+                }
+            }
+        });
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private void refreshGauges() {
+        depth.set(repository.countByStatus(LoyaltyConfirmation.Status.PENDING));
+        oldestAgeSeconds.set(repository.findOldestCreatedAt(LoyaltyConfirmation.Status.PENDING)
+                .map(createdAt -> Duration.between(createdAt, LocalDateTime.now()).toSeconds())
+                .orElse(0L));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 255 ? message.substring(0, 255) : message;
+    }
+
+    /**
+     * Result of sending one entry; {@code status} PENDING means the entry is retried at {@code nextAttemptAt}.
+     * {@code deferred} entries were never sent and get their attempt back.
+     */
+    private record Outcome(Long id, int attempts, LoyaltyConfirmation.Status status,
+                           LocalDateTime nextAttemptAt, String lastError, boolean deferred) {
+    }
+
+    private record Dispatch(List<Outcome> outcomes, boolean interrupted) {
+    }
+
+    /**
+     * Stops the dispatch threads when the application context shuts down.
+     */
+    @Override
+    public void destroy() {
+        dispatchExecutor.shutdown();
+    }
+}
@@ -0,0 +1,346 @@
+package com.app.service;
+
+import com.app.config.ExecutorFactory;
+import com.app.model.BatchOrderResult;
+import com.app.model.LoyaltyConfirmation;
+import com.app.model.Order;
+import com.app.model.CartRequest;
+import com.app.model.OrderRequest;
+import com.app.model.RewardsResponse;
+import com.app.model.User;
+import com.app.repository.LoyaltyConfirmationRepository;
+import com.app.repository.OrderRepository;
+import com.app.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Service layer for bulk order ingestion.
+ * Orders are read one at a time from a JSON array or NDJSON stream and processed in chunks:
+ * the users of a chunk are loaded with one query, rewards are evaluated concurrently on a bounded pool,
+ * and the orders, their items, the loyalty outbox entries and one statistics update per user are
+ * written in a single transaction using JDBC batching. A result line is streamed back per order
+ * as soon as its chunk is done, so neither the request nor the response is held in memory.
+ *
+ * <p>
+ * Each chunk is committed on its own: a failing chunk marks its orders FAILED and the batch continues.
+ * Invalid requests, including orders that cannot be priced or built, and unknown users are REJECTED
+ * individually without affecting the rest of the chunk.
+ * So are orders redeeming loyalty points that an earlier order of the same user in the chunk already redeemed;
+ * the points of each user are deducted with their statistics update, which fails the chunk if a concurrent
+ * checkout spent them in the meantime.
+ * A malformed document stops reading; the orders before it are still processed.
+ * </p>
+ *
+ * <p>
+ * Configuration properties (optional):
+ * <ul>
+ *     <li>app.orders.batch.chunk-size=500 - orders per transaction</li>
+ *     <li>app.orders.batch.parallelism=16 - concurrent rewards evaluations</li>
+ * </ul>
+ * Metrics: {@code orders.batch.results} (tag {@code status}: created, rejected, failed).
+ * </p>
+ */
+@Slf4j
+@Service
+public class OrderBatchService implements DisposableBean {
+
+    static final String CREATED = "CREATED";
+    static final String REJECTED = "REJECTED";
+    static final String FAILED = "FAILED";
+
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final LoyaltyConfirmationRepository loyaltyConfirmationRepository;
+    private final UserService userService;
+    private final RewardsService rewardsService;
+    private final CartPricer cartPricer;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService evaluationExecutor;
+    private final int chunkSize;
+
+    private final Counter created;
+    private final Counter rejected;
+    private final Counter failed;
+
+    public OrderBatchService(UserRepository userRepository,
+                             OrderRepository orderRepository,
+                             LoyaltyConfirmationRepository loyaltyConfirmationRepository,
+                             UserService userService,
+                             RewardsService rewardsService,
+                             CartPricer cartPricer,
+                             TransactionTemplate transactionTemplate,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             ExecutorFactory executorFactory,
+                             @Value("${app.orders.batch.chunk-size:500}") int chunkSize,
+                             @Value("${app.orders.batch.parallelism:16}") int parallelism) {
+        this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.loyaltyConfirmationRepository = loyaltyConfirmationRepository;
+        this.userService = userService;
+        this.rewardsService = rewardsService;
+        this.cartPricer = cartPricer;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.evaluationExecutor = executorFactory.bounded("order-batch-", parallelism);
+        this.chunkSize = chunkSize;
+
+        this.created = meterRegistry.counter("orders.batch.results", "status", "created");
+        this.rejected = meterRegistry.counter("orders.batch.results", "status", "rejected");
+        this.failed = meterRegistry.counter("orders.batch.results", "status", "failed");
+    }
+
+    /**
+     * Places all orders read from the input and writes one {@link BatchOrderResult} per order as NDJSON,
+     * in input order.
+     * @param in A JSON array of order requests, or newline-delimited order requests.
+     * @param out The response stream; not closed by this method.
+     */
+    public void placeOrders(InputStream in, OutputStream out) throws IOException {
+        try (MappingIterator<OrderRequest> requests = objectMapper.readerFor(OrderRequest.class).readValues(in);
+             SequenceWriter writer = objectMapper.writer()
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            List<OrderRequest> chunk = new ArrayList<>(chunkSize);
+            int firstIndex = 0;
+            boolean more = true;
+            while (more) {
+                String parseError = null;
+                try {
+                    more = requests.hasNextValue();
+                    if (more) {
+                        chunk.add(requests.nextValue());
+                    }
+                } catch (JsonProcessingException ex) {
+                    parseError = "Malformed order: " + ex.getOriginalMessage();
+                    more = false;
+                }
+                if (chunk.size() == chunkSize || (!more && !chunk.isEmpty())) {
+                    for (BatchOrderResult result : process(firstIndex, chunk)) {
+                        writer.write(result);
+                    }
+                    writer.flush();
+                    firstIndex += chunk.size();
+                    chunk.clear();
+                }
+                if (parseError != null) {
+                    writer.write(reject(firstIndex, parseError));
+                }
+            }
+        }
+    }
+
+    /**
+     * Places one chunk of orders and returns their results in input order.
+     */
+    private List<BatchOrderResult> process(int firstIndex, List<OrderRequest> chunk) {
+        BatchOrderResult[] results = new BatchOrderResult[chunk.size()];
+        CartRequest[] carts = new CartRequest[chunk.size()];
+
+        // Step 1: Validate and price requests, and load all users of the chunk with one query
+        for (int i = 0; i < chunk.size(); i++) {
+            String violations = validate(chunk.get(i));
+            if (violations != null) {
+                results[i] = reject(firstIndex + i, violations);
+                continue;
+            }
+            try {
+                carts[i] = chunk.get(i).toCartRequest();
+                carts[i].setPricing(cartPricer.price(carts[i].getItems(), carts[i].getTotal()));
+            } catch (CartTotalMismatchException ex) {
+                results[i] = reject(firstIndex + i, ex.getMessage());
+            } catch (RuntimeException ex) {
+                // e.g. a line total overflowing; such an order is invalid, not a reason to fail the chunk
+                results[i] = reject(firstIndex + i, "Invalid order: " + describe(ex));
+            }
+        }
+        Set<Long> userIds = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null) {
+                userIds.add(chunk.get(i).getUserId());
+            }
+        }
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+
+        // Step 2: Evaluate rewards concurrently on the bounded pool
+        List<CompletableFuture<RewardsResponse>> evaluations = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            CartRequest cart = carts[i];
+            User user = results[i] == null ? users.get(cart.getUserId()) : null;
+            if (results[i] == null && user == null) {
+                results[i] = reject(firstIndex + i, "User not found with id: " + cart.getUserId());
+            }
+            evaluations.add(user == null ? null : CompletableFuture.supplyAsync(
+                    () -> rewardsService.evaluateCart(cart, user), evaluationExecutor));
+        }
+
+        List<Integer> pending = new ArrayList<>(chunk.size());
+        List<Order> orders = new ArrayList<>(chunk.size());
+        List<RewardsResponse> rewards = new ArrayList<>(chunk.size());
+        // Every order of a user was evaluated against the same balance, so its points can only be redeemed once
+        Map<Long, Integer> pointsLeft = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (evaluations.get(i) == null) {
+                continue;
+            }
+            CartRequest cart = carts[i];
+            RewardsResponse result;
+            try {
+                result = evaluations.get(i).join();
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                results[i] = fail(firstIndex + i, "Rewards evaluation failed: " + cause.getMessage());
+                continue;
+            }
+            int pointsUsed = result != null ? result.getLoyaltyPointsUsed() : 0;
+            int available = pointsLeft.computeIfAbsent(cart.getUserId(), id -> users.get(id).getLoyaltyPoints());
+            if (pointsUsed > available) {
+                results[i] = reject(firstIndex + i, "Loyalty points already redeemed by an earlier order of the batch");
+                continue;
+            }
+            try {
+                long discount = result != null ? result.getTotalDiscount() : 0L;
+                Order order = Order.placed(users.get(cart.getUserId()), cart.getItems(),
+                        Math.subtractExact(cart.getPricing().subtotal(), discount), discount);
+                pending.add(i);
+                rewards.add(result);
+                orders.add(order);
+                pointsLeft.put(cart.getUserId(), available - pointsUsed);
+            } catch (RuntimeException ex) {
+                results[i] = reject(firstIndex + i, "Invalid order: " + describe(ex));
+            }
+        }
+
+        // Step 3: Persist the evaluated orders of the chunk in one transaction
+        if (!orders.isEmpty()) {
+            try {
+                persist(orders, rewards);
+                for (int p = 0; p < pending.size(); p++) {
+                    Order order = orders.get(p);
+                    created.increment();
+                    results[pending.get(p)] = BatchOrderResult.builder()
+                            .index(firstIndex + pending.get(p))
+                            .orderId(order.getId())
+                            .status(CREATED)
+                            .total(order.getTotal())
+                            .discount(order.getDiscount())
+                            .build();
+                }
+                orders.stream().map(order -> order.getUser().getId()).distinct()
+                        .forEach(userId -> rewardsService.invalidateEvaluations(userId.toString()));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to persist a chunk of {} batch orders", orders.size(), ex);
+                for (Integer i : pending) {
+                    results[i] = fail(firstIndex + i, "Failed to save order: " + ex.getMessage());
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Saves the orders with their items and outbox entries, and adds them to the user statistics
+     * with one update per user. Users are updated in id order so concurrent batches cannot deadlock.
+     */
+    private void persist(List<Order> orders, List<RewardsResponse> rewards) {
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRepository.saveAll(orders);
+
+            Map<Long, UserTotals> totals = new TreeMap<>();
+            List<LoyaltyConfirmation> confirmations = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                totals.computeIfAbsent(order.getUser().getId(), id -> new UserTotals())
+                        .add(order.getTotal(), rewards.get(i) != null ? rewards.get(i).getLoyaltyPointsUsed() : 0);
+                if (rewards.get(i) != null && rewards.get(i).isLoyaltyUsed()) {
+                    confirmations.add(LoyaltyConfirmation.forOrder(order));
+                }
+            }
+            loyaltyConfirmationRepository.saveAll(confirmations);
+            totals.forEach((userId, userTotals) ->
+                    userService.recordOrders(userId, userTotals.orders, userTotals.amount, userTotals.points));
+        });
+    }
+
+    private String validate(OrderRequest req) {
+        if (req == null) {
+            return "Order must not be null";
+        }
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(req);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String describe(RuntimeException ex) {
+        return ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+    }
+
+    private BatchOrderResult reject(int index, String error) {
+        rejected.increment();
+        return BatchOrderResult.builder().index(index).status(REJECTED).error(error).build();
+    }
+
+    private BatchOrderResult fail(int index, String error) {
+        failed.increment();
+        return BatchOrderResult.builder().index(index).status(FAILED).error(error).build();
+    }
+
+    /**
+     * Stops the evaluation threads when the application context shuts down.
+     */
+    @Override
+    public void destroy() {
+        evaluationExecutor.shutdown();
+    }
+
+    private static final class UserTotals {
+        private int orders;
+        private long amount;
+        private int points;
+
+        void add(long total, int pointsUsed) {
+            orders++;
+            amount = Math.addExact(amount, total);
+            points = Math.addExact(points, pointsUsed);
+        }
+    }
+}
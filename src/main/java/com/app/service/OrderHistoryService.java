@@ -0,0 +1,178 @@
+package com.app.service;
+
+import com.app.model.ItemDTO;
+import com.app.model.Order;
+import com.app.model.OrderDTO;
+import com.app.model.OrderItemRow;
+import com.app.model.OrderPageResponse;
+import com.app.repository.OrderRepository;
+import com.app.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Service layer for reading a user's order history.
+ * Pages are addressed with an opaque cursor encoding the (createdAt, id) of the last order returned,
+ * and the full history can be exported as NDJSON straight from a database cursor.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderHistoryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Returns one page of the user's orders, newest first.
+     * @param userId The ID of the user.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param limit The page size, capped at {@link #MAX_PAGE_SIZE}.
+     * @return The page and the cursor of the next page.
+     * @throws NoSuchElementException if the user does not exist.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrders(Long userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether there is a next page
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        // On every page, so a cursor does not turn an unknown user into an empty page
+        requireUser(userId);
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findFirstPage(userId, page);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            orders = orderRepository.findPageBefore(userId, position.createdAt(), position.id(), page);
+        }
+
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+        if (!orders.isEmpty()) {
+            orders = withItems(orders);
+        }
+
+        List<OrderDTO> dtos = new ArrayList<>(orders.size());
+        orders.forEach(order -> dtos.add(OrderDTO.fromEntity(order)));
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new OrderPageResponse(dtos, nextCursor);
+    }
+
+    /**
+     * Loads the items of a page in one query, keeping the page order. Paged queries cannot join fetch
+     * a collection without paginating in memory, so the page is read first and its items by id here.
+     */
+    private List<Order> withItems(List<Order> page) {
+        List<Long> ids = new ArrayList<>(page.size());
+        page.forEach(order -> ids.add(order.getId()));
+        Map<Long, Order> byId = new HashMap<>();
+        orderRepository.findWithItemsByIdIn(ids).forEach(order -> byId.put(order.getId(), order));
+        List<Order> ordered = new ArrayList<>(ids.size());
+        ids.forEach(id -> ordered.add(byId.get(id)));
+        return ordered;
+    }
+
+    /**
+     * Verifies that the user exists before an export is started.
+     * @param userId The ID of the user.
+     * @throws NoSuchElementException if the user does not exist.
+     */
+    public void requireUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with id: " + userId);
+        }
+    }
+
+    /**
+     * Writes all orders of the user with their items as newline-delimited JSON, newest first.
+     * Rows are streamed from the database and each order is written as soon as its last item is read,
+     * so at most one order is held in memory.
+     * @param userId The ID of the user.
+     * @param out The response stream; not closed by this method.
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(Long userId, OutputStream out) throws IOException {
+        try (Stream<OrderItemRow> rows = orderRepository.streamWithItems(userId);
+             SequenceWriter writer = objectMapper.writer()
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            OrderDTO current = null;
+            Iterator<OrderItemRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                OrderItemRow row = iterator.next();
+                if (current == null || !current.getId().equals(row.orderId())) {
+                    if (current != null) {
+                        writer.write(current);
+                    }
+                    current = OrderDTO.builder()
+                            .id(row.orderId())
+                            .userId(userId)
+                            .items(new ArrayList<>())
+                            .total(row.total())
+                            .discount(row.discount())
+                            .status(row.status())
+                            .createdAt(row.createdAt())
+                            .build();
+                }
+                if (row.itemId() != null) {
+                    current.getItems().add(new ItemDTO(row.itemId(), row.sku(), row.name(), row.quantity(), row.price()));
+                }
+            }
+            if (current != null) {
+                writer.write(current);
+            }
+        }
+    }
+
+    /**
+     * Position of the last order of a page: base64url of "createdAt|id".
+     */
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+            }
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.app.service;
 
+import com.app.model.CartRequest;
+import com.app.model.LoyaltyConfirmation;
 import com.app.model.Order;
 import com.app.model.OrderRequest;
+import com.app.model.OrderResponse;
+import com.app.model.PricedCart;
 import com.app.model.RewardsResponse;
 import com.app.model.User;
+import com.app.repository.LoyaltyConfirmationRepository;
 import com.app.repository.OrderRepository;
-lombok.RequiredArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.NoSuchElementException;
 
 /**
  * Service layer for order processing.
- * Handles business logic for placing and saving orders, applying discounts, and updating user statistics.
+ * Handles business logic for placing orders, applying discounts, and updating user statistics.
+ * Loyalty confirmations are recorded in the outbox together with the order and sent to Talon.One
+ * by {@link LoyaltyConfirmationDispatcher}.
  */
 @Service
 @RequiredArgsConstructor
@@ -19,83 +31,74 @@ public class OrderService {
     private final UserService userService;
     private final RewardsService rewardsService;
     private final OrderRepository orderRepository;
+    private final LoyaltyConfirmationRepository loyaltyConfirmationRepository;
+    private final CartPricer cartPricer;
+    private final CheckoutObservations observations;
+    private final TransactionTemplate transactionTemplate;
 
     /**
-     * Saves an order after evaluating rewards and discounts.
-     * @param orderRequest The order request from the client.
-     * @param rewardsResult The evaluated rewards/discounts for the order.
-     * @return The saved Order entity.
+     * Places an order. The cart is priced, the user loaded and rewards evaluated before any transaction is opened,
+     * so no database connection is held while Talon.One is called. Only the order, its items, the updated user
+     * statistics and any loyalty confirmation are then written, together in one short transaction.
+     * Cached evaluations of the user are dropped once that transaction has committed.
+     * @param req The order request.
+     * @return A view of the saved order together with the rewards applied to it.
+     * @throws NoSuchElementException if the user does not exist.
+     * @throws CartTotalMismatchException if the order total does not match its items.
+     * @throws InsufficientLoyaltyPointsException if a concurrent order redeemed the same loyalty points first;
+     *         nothing is written then.
      */
-    public Order saveOrder(OrderRequest orderRequest, RewardsResponse rewardsResult) {
-        // Retrieve user
-        User user = userService.findUserById(orderRequest.getUserId());
-        if (user == null) {
-            return null;
-        }
-
-        // Calculate final total after applying discounts
-        double discount = rewardsResult != null ? rewardsResult.getTotalDiscount() : 0.0;
-        double finalTotal = orderRequest.getTotal() - discount;
-
-        // Create Order entity
-        Order order = new Order();
-        order.setUser(user);
-        order.setItems(orderRequest.getItems());
-        order.setTotal(finalTotal);
-        order.setDiscount(discount);
-        order.setStatus("PLACED");
-        order.setCreatedAt(java.time.LocalDateTime.now());
+    public OrderResponse placeOrder(OrderRequest req) {
+        // Step 0: Price the cart once; the result is reused for rewards evaluation and the order total
+        PricedCart pricing = observations.stage("pricing", () -> cartPricer.price(req.getItems(), req.getTotal()));
+        CartRequest cart = req.toCartRequest();
+        cart.setPricing(pricing);
 
-        // Save order
-        Order savedOrder = orderRepository.save(order);
-
-        // Optionally, confirm loyalty point usage after order placement
-        if (rewardsResult != null && rewardsResult.isLoyaltyUsed()) {
-            rewardsService.confirmLoyalty(user.getId().toString(), finalTotal);
-        }
-
-        return savedOrder;
+        // Step 1: Retrieve user
+        User user = observations.stage("user_lookup", () -> {
+            User found = userService.findUserById(req.getUserId());
+            if (found == null) {
+                throw new NoSuchElementException("User not found with id: " + req.getUserId());
+            }
+            return found;
+        });
+
+        // Step 2: Evaluate discounts/rewards for the loaded user, outside the transaction
+        RewardsResponse rewards = observations.stage("rewards", () -> rewardsService.evaluateCart(cart, user));
+
+        long discount = rewards != null ? rewards.getTotalDiscount() : 0L;
+        long finalTotal = pricing.subtotal() - discount;
+
+        Order savedOrder = transactionTemplate.execute(status -> {
+            // Step 3: Create and save order with applied discount
+            Order order = observations.stage("order_save",
+                    () -> orderRepository.save(Order.placed(user, req.getItems(), finalTotal, discount)));
+
+            // Step 4: Atomically update user statistics in the same transaction
+            observations.stage("user_stats", () -> userService.updateUserAfterOrder(user, order, rewards));
+
+            // Step 5: Record loyalty point usage for confirmation after commit
+            if (rewards != null && rewards.isLoyaltyUsed()) {
+                observations.stage("loyalty_outbox",
+                        () -> loyaltyConfirmationRepository.save(LoyaltyConfirmation.forOrder(order)));
+            }
+
+            invalidateEvaluationsAfterCommit(user.getId().toString());
+            return order;
+        });
+        return OrderResponse.fromPlacedOrder(savedOrder, rewards);
     }
 
     /**
-     * Places an order by evaluating rewards, saving the order, and updating user stats.
-     * @param req The order request.
-     * @return The saved Order entity.
+     * Drops the user's cached evaluations once the order has committed, so a concurrent evaluation cannot
+     * re-cache the state from before the order in between.
      */
-    public Order placeOrder(OrderRequest req) {
-        // Step 1: Retrieve user
-        User user = userService.findUserById(req.getUserId());
-        if (user == null) {
-            throw new IllegalArgumentException("User not found with id: " + req.getUserId());
-        }
-
-        // Step 2: Evaluate discounts/rewards
-        RewardsResponse rewards = rewardsService.evaluateCart(req.toCartRequest());
-
-        // Step 3: Create and save order with applied discount
-        double discount = rewards != null ? rewards.getTotalDiscount() : 0.0;
-        double finalTotal = req.getTotal() - discount;
-
-        Order order = new Order();
-        order.setUser(user);
-        order.setItems(req.getItems());
-        order.setTotal(finalTotal);
-        order.setDiscount(discount);
-        order.setStatus("PLACED");
-        order.setCreatedAt(java.time.LocalDateTime.now());
-
-        Order savedOrder = orderRepository.save(order);
-
-        // Step 4: Update user statistics
-        user.setTotalOrders(user.getTotalOrders() + 1);
-        user.setTotalSpent(user.getTotalSpent() + finalTotal);
-        userService.updateUserAfterOrder(user, savedOrder, rewards);
-
-        // Step 5: Confirm loyalty point usage if applicable
-        if (rewards != null && rewards.isLoyaltyUsed()) {
-            rewardsService.confirmLoyalty(user.getId().toString(), finalTotal);
-        }
-
-        return savedOrder;
+    private void invalidateEvaluationsAfterCommit(String userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rewardsService.invalidateEvaluations(userId);
+            }
+        });
     }
 }
@@ -0,0 +1,23 @@
+package com.app.service;
+
+/**
+ * Controls how {@link RewardsService#evaluateCart} combines the Talon.One profile update with the
+ * session evaluation. Configured with talonone.rewards.profile-sync-mode.
+ */
+public enum ProfileSyncMode {
+    /**
+     * Push the profile, then evaluate the session. Use when campaigns read profile attributes
+     * that can change in the same request.
+     */
+    SEQUENTIAL,
+    /**
+     * Push the profile and evaluate the session concurrently. The session may be evaluated against
+     * the previous profile attributes, so only use it when campaigns do not depend on fresh attributes.
+     */
+    PARALLEL,
+    /**
+     * Push the profile only when it differs from the last one sent for the user (see {@link ProfileSyncService}),
+     * then evaluate the session. Ordering is preserved whenever a push happens. This is the default.
+     */
+    SKIP_UNCHANGED
+}
@@ -0,0 +1,219 @@
+package com.app.service;
+
+import com.app.model.ProfileDTO;
+import com.app.talonone.RequestCoalescer;
+import com.app.talonone.TalonOneAsyncClient;
+import com.app.talonone.TalonOneClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps Talon.One customer profiles in sync without re-sending unchanged profiles.
+ * A fingerprint of the last profile pushed per integrationId is kept in a bounded cache with TTL,
+ * and {@link TalonOneClient#updateProfile} is only called when the attributes have changed
+ * or the entry has expired. Identical pushes running at the same time (double submits, several tabs)
+ * share one remote call, whether they were made through the blocking or the non-blocking methods.
+ *
+ * <p>
+ * Configuration properties (optional):
+ * <ul>
+ *     <li>talonone.profile-sync.max-entries=100000</li>
+ *     <li>talonone.profile-sync.ttl-minutes=30 - after this, the profile is re-sent even if unchanged</li>
+ * </ul>
+ * Metrics: {@code talonone.profile.sync.lookup} (tag {@code result}: hit, miss),
+ * {@code talonone.profile.sync.push} (tag {@code outcome}: sent, suppressed, forced) and the
+ * standard Caffeine cache metrics under {@code cache=talonone.profile.sync} and
+ * {@code talonone.coalescer.calls{name=profiles}}.
+ * </p>
+ */
+@Service
+public class ProfileSyncService {
+
+    private final TalonOneClient talonOneClient;
+    private final TalonOneAsyncClient talonOneAsyncClient;
+    private final Cache<String, Long> lastSyncedFingerprints;
+    private final RequestCoalescer<PushKey, Boolean> coalescer;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sent;
+    private final Counter suppressed;
+    private final Counter forced;
+
+    public ProfileSyncService(TalonOneClient talonOneClient,
+                              TalonOneAsyncClient talonOneAsyncClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${talonone.profile-sync.max-entries:100000}") long maxEntries,
+                              @Value("${talonone.profile-sync.ttl-minutes:30}") long ttlMinutes) {
+        this.talonOneClient = talonOneClient;
+        this.talonOneAsyncClient = talonOneAsyncClient;
+        this.lastSyncedFingerprints = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lastSyncedFingerprints, "talonone.profile.sync");
+        this.coalescer = new RequestCoalescer<>("profiles", meterRegistry);
+
+        this.hits = meterRegistry.counter("talonone.profile.sync.lookup", "result", "hit");
+        this.misses = meterRegistry.counter("talonone.profile.sync.lookup", "result", "miss");
+        this.sent = meterRegistry.counter("talonone.profile.sync.push", "outcome", "sent");
+        this.suppressed = meterRegistry.counter("talonone.profile.sync.push", "outcome", "suppressed");
+        this.forced = meterRegistry.counter("talonone.profile.sync.push", "outcome", "forced");
+    }
+
+    /**
+     * Pushes the profile to Talon.One only if it differs from the last profile pushed for the same user.
+     * @param profile the profile built from the current user state
+     * @return true if the profile was sent, false if the push was suppressed
+     */
+    public boolean syncIfChanged(ProfileDTO profile) {
+        long fingerprint = fingerprint(profile);
+        if (isUnchanged(profile, fingerprint)) {
+            return false;
+        }
+        send(profile, fingerprint);
+        sent.increment();
+        return true;
+    }
+
+    /**
+     * Non-blocking variant of {@link #syncIfChanged}.
+     * @param profile the profile built from the current user state
+     * @return a future completing with true once the profile was sent, or with false if the push was suppressed
+     */
+    public CompletableFuture<Boolean> syncIfChangedAsync(ProfileDTO profile) {
+        long fingerprint = fingerprint(profile);
+        if (isUnchanged(profile, fingerprint)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return sendAsync(profile, fingerprint).thenApply(pushed -> {
+            sent.increment();
+            return true;
+        });
+    }
+
+    /**
+     * Pushes the profile unconditionally and remembers it as the last synced state.
+     * @param profile the profile to push
+     */
+    public void push(ProfileDTO profile) {
+        send(profile, fingerprint(profile));
+        sent.increment();
+    }
+
+    /**
+     * Non-blocking variant of {@link #push}.
+     * @param profile the profile to push
+     * @return a future completing once Talon.One has accepted the profile
+     */
+    public CompletableFuture<Void> pushAsync(ProfileDTO profile) {
+        return sendAsync(profile, fingerprint(profile)).thenRun(sent::increment);
+    }
+
+    /**
+     * Forces a resync of the given profile, e.g. after the profile was changed in Talon.One directly.
+     * @param profile the profile to push
+     */
+    public void forceResync(ProfileDTO profile) {
+        lastSyncedFingerprints.invalidate(profile.getIntegrationId());
+        send(profile, fingerprint(profile));
+        forced.increment();
+    }
+
+    /**
+     * Forgets the last synced state of a user so the next {@link #syncIfChanged} pushes again.
+     * @param integrationId the Talon.One integration id of the user
+     */
+    public void invalidate(String integrationId) {
+        lastSyncedFingerprints.invalidate(integrationId);
+    }
+
+    /**
+     * Forgets the last synced state of all users.
+     */
+    public void invalidateAll() {
+        lastSyncedFingerprints.invalidateAll();
+    }
+
+    /**
+     * @return true if the same profile was pushed for the user within the TTL
+     */
+    private boolean isUnchanged(ProfileDTO profile, long fingerprint) {
+        Long previous = lastSyncedFingerprints.getIfPresent(profile.getIntegrationId());
+        if (previous == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        if (previous == fingerprint) {
+            suppressed.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private void send(ProfileDTO profile, long fingerprint) {
+        coalescer.execute(new PushKey(profile.getIntegrationId(), fingerprint), () -> {
+            talonOneClient.updateProfile(profile.getIntegrationId(), profile);
+            lastSyncedFingerprints.put(profile.getIntegrationId(), fingerprint);
+            return Boolean.TRUE;
+        });
+    }
+
+    private CompletableFuture<Boolean> sendAsync(ProfileDTO profile, long fingerprint) {
+        return coalescer.executeAsync(new PushKey(profile.getIntegrationId(), fingerprint), () ->
+                talonOneAsyncClient.updateProfile(profile.getIntegrationId(), profile).thenApply(ignored -> {
+                    lastSyncedFingerprints.put(profile.getIntegrationId(), fingerprint);
+                    return Boolean.TRUE;
+                }));
+    }
+
+    /**
+     * 64-bit FNV-1a hash over the profile attributes sent to Talon.One.
+     */
+    static long fingerprint(ProfileDTO profile) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, profile.getEmail());
+        hash = mix(hash, profile.getName());
+        hash = mix(hash, profile.getTotalOrders());
+        hash = mix(hash, profile.getTotalSpent());
+        hash = mix(hash, profile.getLoyaltyPoints());
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash, -1L);
+        }
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        // Field separator so ("ab", "c") and ("a", "bc") differ
+        return mix(hash, (long) value.length());
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Identifies identical profile pushes: same user, same attributes.
+     */
+    private record PushKey(String integrationId, long fingerprint) {
+    }
+}
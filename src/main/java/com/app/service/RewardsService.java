@@ -4,19 +4,72 @@ import com.app.model.CartRequest;
 import com.app.model.ProfileDTO;
 import com.app.model.RewardsResponse;
 import com.app.model.SessionDTO;
+import com.app.model.User;
+import com.app.rules.LocalRulesEngine;
+import com.app.rules.RulesMode;
+import com.app.talonone.TalonOneAsyncClient;
 import com.app.talonone.TalonOneClient;
-lombok.RequiredArgsConstructor;
+import com.app.talonone.TalonOneUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
 /**
  * Service layer for rewards and discounts.
  * Integrates with Talon.One API to evaluate and confirm rewards/discounts for users.
+ *
+ * <p>
+ * How the profile update and the session evaluation are combined is selected with
+ * talonone.rewards.profile-sync-mode (see {@link ProfileSyncMode}, default SKIP_UNCHANGED).
+ * Profiles are built from the stored {@link User} and pushed through {@link ProfileSyncService}; carts of unknown
+ * users are evaluated without a profile update. The blocking and non-blocking methods follow the same policy.
+ * Session evaluations are served from {@link SessionEvaluationCache} while the cart and user are unchanged.
+ * Each phase is timed as {@code rewards.evaluate.phase} tagged with {@code phase} (profile, session, total)
+ * and {@code mode}.
+ * </p>
+ *
+ * <p>
+ * While Talon.One is unavailable (circuit open or bulkhead full, see {@link com.app.talonone.TalonOneResilience})
+ * carts are evaluated to a zero-discount {@link RewardsResponse#none()} so orders can still be placed;
+ * each fallback is counted as {@code rewards.evaluate.fallback} tagged with the rejecting {@code endpoint}.
+ * Only the session evaluation falls back: the profile update is best effort in every sync mode, and a failed
+ * update is logged and counted as {@code rewards.evaluate.profile.failed} while the session result is returned.
+ * </p>
+ *
+ * <p>
+ * With talonone.rules.mode (see {@link RulesMode}, default OFF) carts can instead be evaluated in-process
+ * by the {@link LocalRulesEngine}, or evaluated by both to compare the local ruleset against Talon.One.
+ * </p>
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RewardsService {
 
     private final TalonOneClient talonOneClient;
+    private final TalonOneAsyncClient talonOneAsyncClient;
+    private final ProfileSyncService profileSyncService;
+    private final SessionEvaluationCache sessionEvaluationCache;
+    private final UserService userService;
+    private final ExecutorService talonOneExecutor;
+    private final LocalRulesEngine localRulesEngine;
+    private final CartPricer cartPricer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${talonone.rewards.profile-sync-mode:SKIP_UNCHANGED}")
+    private ProfileSyncMode profileSyncMode;
+
+    @Value("${talonone.rules.mode:OFF}")
+    private RulesMode rulesMode;
 
     /**
      * Evaluates the cart for personalized rewards and discounts via Talon.One.
@@ -24,24 +77,161 @@ public class RewardsService {
      * @return RewardsResponse containing applicable discounts and rewards.
      */
     public RewardsResponse evaluateCart(CartRequest req) {
-        // Update user profile in Talon.One
-        ProfileDTO profileDTO = ProfileDTO.fromCartRequest(req);
-        talonOneClient.updateProfile(profileDTO);
+        return evaluateCart(req, userService.findUserById(req.getUserId()));
+    }
+
+    /**
+     * Evaluates the cart for a user that the caller has already loaded.
+     * @param req The cart request containing items and user info.
+     * @param user The user placing the cart, or null if unknown (no profile is pushed then).
+     * @return RewardsResponse containing applicable discounts and rewards.
+     * @throws CartTotalMismatchException if the cart total does not match its items.
+     */
+    public RewardsResponse evaluateCart(CartRequest req, User user) {
+        priced(req);
+        if (rulesMode == RulesMode.LOCAL) {
+            Optional<RewardsResponse> local = localRulesEngine.evaluate(req, user);
+            if (local.isPresent()) {
+                return local.get();
+            }
+        }
+        RewardsResponse response;
+        try {
+            response = timed("total", () -> evaluate(req, user));
+        } catch (TalonOneUnavailableException ex) {
+            return fallback(ex);
+        }
+        if (rulesMode == RulesMode.SHADOW) {
+            localRulesEngine.shadow(req, user, response);
+        }
+        return response;
+    }
 
-        // Evaluate session for discounts/rewards
+    private RewardsResponse evaluate(CartRequest req, User user) {
         SessionDTO sessionDTO = SessionDTO.fromCartRequest(req);
-        RewardsResponse response = talonOneClient.evaluateSession(sessionDTO);
+        if (user == null) {
+            // A profile without the user's attributes would overwrite them in Talon.One
+            return evaluateSession(sessionDTO);
+        }
+        ProfileDTO profileDTO = ProfileDTO.fromUser(user);
 
-        return response;
+        switch (profileSyncMode) {
+            case PARALLEL -> {
+                // Overlap the profile update with the session evaluation
+                CompletableFuture<Void> profileUpdate = CompletableFuture.runAsync(
+                        () -> updateProfile(() -> profileSyncService.push(profileDTO)), talonOneExecutor);
+                RewardsResponse response = evaluateSession(sessionDTO);
+                profileUpdate.join();
+                return response;
+            }
+            case SKIP_UNCHANGED -> {
+                updateProfile(() -> profileSyncService.syncIfChanged(profileDTO));
+                return evaluateSession(sessionDTO);
+            }
+            default -> {
+                updateProfile(() -> profileSyncService.push(profileDTO));
+                return evaluateSession(sessionDTO);
+            }
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #evaluateCart(CartRequest)}.
+     * The user is loaded on the calling thread; the Talon.One calls are then chained without holding it.
+     * @param req The cart request containing items and user info.
+     * @return a future with the RewardsResponse containing applicable discounts and rewards.
+     */
+    public CompletableFuture<RewardsResponse> evaluateCartAsync(CartRequest req) {
+        return evaluateCartAsync(req, userService.findUserById(req.getUserId()));
+    }
+
+    /**
+     * Non-blocking variant of {@link #evaluateCart(CartRequest, User)}, with the same rules mode, profile sync mode,
+     * session cache and fallback. Concurrent identical evaluations share one remote call with blocking callers.
+     * @param req The cart request containing items and user info.
+     * @param user The user placing the cart, or null if unknown (no profile is pushed then).
+     * @return a future with the RewardsResponse containing applicable discounts and rewards.
+     * @throws CartTotalMismatchException if the cart total does not match its items.
+     */
+    public CompletableFuture<RewardsResponse> evaluateCartAsync(CartRequest req, User user) {
+        priced(req);
+        if (rulesMode == RulesMode.LOCAL) {
+            Optional<RewardsResponse> local = localRulesEngine.evaluate(req, user);
+            if (local.isPresent()) {
+                return CompletableFuture.completedFuture(local.get());
+            }
+        }
+        CompletableFuture<RewardsResponse> evaluation = timedAsync("total", () -> evaluateAsync(req, user))
+                .exceptionally(failure -> {
+                    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                    if (cause instanceof TalonOneUnavailableException unavailable) {
+                        return fallback(unavailable);
+                    }
+                    throw failure instanceof CompletionException ce ? ce : new CompletionException(cause);
+                });
+        if (rulesMode == RulesMode.SHADOW) {
+            return evaluation.thenApply(response -> {
+                localRulesEngine.shadow(req, user, response);
+                return response;
+            });
+        }
+        return evaluation;
+    }
+
+    private CompletableFuture<RewardsResponse> evaluateAsync(CartRequest req, User user) {
+        SessionDTO sessionDTO = SessionDTO.fromCartRequest(req);
+        if (user == null) {
+            return evaluateSessionAsync(sessionDTO);
+        }
+        ProfileDTO profileDTO = ProfileDTO.fromUser(user);
+
+        return switch (profileSyncMode) {
+            case PARALLEL -> updateProfileAsync(() -> profileSyncService.pushAsync(profileDTO))
+                    .thenCombine(evaluateSessionAsync(sessionDTO), (ignored, response) -> response);
+            case SKIP_UNCHANGED -> updateProfileAsync(() -> profileSyncService.syncIfChangedAsync(profileDTO))
+                    .thenCompose(ignored -> evaluateSessionAsync(sessionDTO));
+            default -> updateProfileAsync(() -> profileSyncService.pushAsync(profileDTO))
+                    .thenCompose(ignored -> evaluateSessionAsync(sessionDTO));
+        };
     }
 
     /**
      * Confirms the usage of loyalty points for a user via Talon.One.
      * @param userId The user ID.
-     * @param total The total amount for which loyalty points are being confirmed.
+     * @param total The total amount in cents for which loyalty points are being confirmed.
+     */
+    public void confirmLoyalty(String userId, long total) {
+        confirmLoyalty(userId, total, null);
+    }
+
+    /**
+     * Confirms the usage of loyalty points with an idempotency key, e.g. when retried from the outbox.
+     * @param userId The user ID.
+     * @param total The total amount in cents for which loyalty points are being confirmed.
+     * @param idempotencyKey The key identifying this confirmation across retries.
      */
-    public void confirmLoyalty(String userId, double total) {
-        talonOneClient.confirmLoyalty(userId, total);
+    public void confirmLoyalty(String userId, long total, String idempotencyKey) {
+        talonOneClient.confirmLoyalty(userId, total, idempotencyKey);
+        sessionEvaluationCache.invalidate(userId);
+    }
+
+    /**
+     * Non-blocking variant of {@link #confirmLoyalty(String, long)}.
+     * @param userId The user ID.
+     * @param total The total amount in cents for which loyalty points are being confirmed.
+     * @return a future completing when Talon.One has confirmed the loyalty usage.
+     */
+    public CompletableFuture<Void> confirmLoyaltyAsync(String userId, long total) {
+        return talonOneAsyncClient.confirmLoyalty(userId, total)
+                .thenRun(() -> sessionEvaluationCache.invalidate(userId));
+    }
+
+    /**
+     * Drops cached session evaluations of a user whose state changed, e.g. after an order was placed.
+     * @param userId The user ID.
+     */
+    public void invalidateEvaluations(String userId) {
+        sessionEvaluationCache.invalidate(userId);
     }
 
     /**
@@ -53,4 +243,77 @@ public class RewardsService {
         CartRequest cartRequest = orderRequest.toCartRequest();
         return evaluateCart(cartRequest);
     }
+
+    /**
+     * Prices the cart once; carts already priced by the caller are not priced again.
+     */
+    private void priced(CartRequest req) {
+        if (req.getPricing() == null) {
+            req.setPricing(cartPricer.price(req.getItems(), req.getTotal()));
+        }
+    }
+
+    /**
+     * Runs a profile update; if it fails, the session is still evaluated against the profile Talon.One already has.
+     */
+    private void updateProfile(Runnable update) {
+        timed("profile", () -> {
+            try {
+                update.run();
+            } catch (RuntimeException ex) {
+                profileUpdateFailed(ex);
+            }
+            return null;
+        });
+    }
+
+    private CompletableFuture<Void> updateProfileAsync(Supplier<? extends CompletableFuture<?>> update) {
+        return timedAsync("profile", () -> {
+            CompletableFuture<?> profileUpdate;
+            try {
+                profileUpdate = update.get();
+            } catch (RuntimeException ex) {
+                profileUpdate = CompletableFuture.failedFuture(ex);
+            }
+            return profileUpdate.<Void>handle((ignored, failure) -> {
+                if (failure != null) {
+                    profileUpdateFailed(failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure);
+                }
+                return null;
+            });
+        });
+    }
+
+    private void profileUpdateFailed(Throwable failure) {
+        log.warn("Evaluating cart without updating the profile: {}", failure.getMessage());
+        meterRegistry.counter("rewards.evaluate.profile.failed").increment();
+    }
+
+    private RewardsResponse evaluateSession(SessionDTO sessionDTO) {
+        return timed("session", () -> sessionEvaluationCache.get(sessionDTO,
+                () -> talonOneClient.evaluateSession(sessionDTO)));
+    }
+
+    private CompletableFuture<RewardsResponse> evaluateSessionAsync(SessionDTO sessionDTO) {
+        return timedAsync("session", () -> sessionEvaluationCache.getAsync(sessionDTO,
+                () -> talonOneAsyncClient.evaluateSession(sessionDTO)));
+    }
+
+    private RewardsResponse fallback(TalonOneUnavailableException ex) {
+        log.warn("Evaluating cart without discounts: {}", ex.getMessage());
+        meterRegistry.counter("rewards.evaluate.fallback", "endpoint", ex.getEndpoint().key()).increment();
+        return RewardsResponse.none();
+    }
+
+    private <T> T timed(String phase, Supplier<T> call) {
+        return meterRegistry.timer("rewards.evaluate.phase", "phase", phase, "mode", profileSyncMode.name())
+                .record(call);
+    }
+
+    private <T> CompletableFuture<T> timedAsync(String phase, Supplier<CompletableFuture<T>> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return call.get().whenComplete((result, failure) -> sample.stop(
+                meterRegistry.timer("rewards.evaluate.phase", "phase", phase, "mode", profileSyncMode.name())));
+    }
 }
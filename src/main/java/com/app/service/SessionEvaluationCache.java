@@ -0,0 +1,221 @@
+package com.app.service;
+
+import com.app.model.DiscountDTO;
+import com.app.model.PricedCart;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.talonone.RequestCoalescer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of Talon.One session evaluations, keyed by the integrationId, cart total and the
+ * order-independent cart fingerprint computed by {@link CartPricer}.
+ * Concurrent evaluations of the same cart are collapsed into a single remote call by a
+ * {@link RequestCoalescer}, also when caching is disabled.
+ *
+ * <p>
+ * Entries of a user are invalidated when an order is placed or loyalty is confirmed for that user.
+ * Instead of scanning the cache, every entry remembers the sequence number at which its evaluation
+ * started, and an entry is stale if the user was invalidated after that point.
+ * Cached responses are shared between callers and must be treated as read-only.
+ * </p>
+ *
+ * <p>
+ * Configuration properties (optional):
+ * <ul>
+ *     <li>talonone.session-cache.enabled=true</li>
+ *     <li>talonone.session-cache.ttl-seconds=30</li>
+ *     <li>talonone.session-cache.max-bytes=67108864 - approximate memory bound, entries are weighed by size</li>
+ * </ul>
+ * Metrics: {@code rewards.session.cache} (tag {@code result}: hit, miss, stale), the standard Caffeine
+ * cache metrics under {@code cache=rewards.session} and {@code talonone.coalescer.calls{name=sessions}}.
+ * </p>
+ */
+@Service
+public class SessionEvaluationCache {
+
+    private final boolean enabled;
+    private final Cache<Key, Entry> evaluations;
+    // integrationId -> sequence at which its entries were last invalidated; kept for one TTL
+    private final Cache<String, Long> invalidations;
+    private final RequestCoalescer<Key, Entry> coalescer;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter stale;
+
+    public SessionEvaluationCache(MeterRegistry meterRegistry,
+                                  @Value("${talonone.session-cache.enabled:true}") boolean enabled,
+                                  @Value("${talonone.session-cache.ttl-seconds:30}") long ttlSeconds,
+                                  @Value("${talonone.session-cache.max-bytes:67108864}") long maxBytes) {
+        this.enabled = enabled;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.evaluations = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> key.weight() + entry.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.invalidations = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, evaluations, "rewards.session");
+
+        this.hits = meterRegistry.counter("rewards.session.cache", "result", "hit");
+        this.misses = meterRegistry.counter("rewards.session.cache", "result", "miss");
+        this.stale = meterRegistry.counter("rewards.session.cache", "result", "stale");
+        this.coalescer = new RequestCoalescer<>("sessions", meterRegistry);
+    }
+
+    /**
+     * Returns the cached evaluation of the session, or evaluates it with the given loader.
+     * Only one loader runs at a time per fingerprint; concurrent callers share its result or failure.
+     * @param session the session being evaluated
+     * @param loader the remote evaluation
+     * @return the rewards for the session
+     */
+    public RewardsResponse get(SessionDTO session, Supplier<RewardsResponse> loader) {
+        String integrationId = session.getIntegrationId();
+        Key key = Key.of(session);
+        if (!enabled) {
+            return coalescer.execute(key, () -> new Entry(loader.get(), 0L)).response();
+        }
+
+        Entry cached = lookup(integrationId, key);
+        if (cached != null) {
+            return cached.response();
+        }
+        return coalescer.execute(key, () -> {
+            long startedAt = sequence.incrementAndGet();
+            return store(integrationId, key, new Entry(loader.get(), startedAt));
+        }).response();
+    }
+
+    /**
+     * Non-blocking variant of {@link #get}, sharing its cache entries and in-flight evaluations.
+     * @param session the session being evaluated
+     * @param loader starts the remote evaluation
+     * @return a future with the rewards for the session
+     */
+    public CompletableFuture<RewardsResponse> getAsync(SessionDTO session,
+                                                       Supplier<CompletableFuture<RewardsResponse>> loader) {
+        String integrationId = session.getIntegrationId();
+        Key key = Key.of(session);
+        if (!enabled) {
+            return coalescer.executeAsync(key, () -> loader.get().thenApply(response -> new Entry(response, 0L)))
+                    .thenApply(Entry::response);
+        }
+
+        Entry cached = lookup(integrationId, key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.response());
+        }
+        return coalescer.executeAsync(key, () -> {
+            long startedAt = sequence.incrementAndGet();
+            return loader.get().thenApply(response -> store(integrationId, key, new Entry(response, startedAt)));
+        }).thenApply(Entry::response);
+    }
+
+    /**
+     * Drops every cached evaluation of the given user, including evaluations still in flight.
+     * @param integrationId the Talon.One integration id of the user
+     */
+    public void invalidate(String integrationId) {
+        invalidations.put(integrationId, sequence.incrementAndGet());
+    }
+
+    /**
+     * Drops all cached evaluations.
+     */
+    public void invalidateAll() {
+        evaluations.invalidateAll();
+    }
+
+    /**
+     * @return the current cached entry for the key, or null after counting a miss
+     */
+    private Entry lookup(String integrationId, Key key) {
+        Entry cached = evaluations.getIfPresent(key);
+        if (cached != null) {
+            if (isCurrent(integrationId, cached)) {
+                hits.increment();
+                return cached;
+            }
+            stale.increment();
+            evaluations.asMap().remove(key, cached);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a completed evaluation unless the user was invalidated while it was in flight.
+     */
+    private Entry store(String integrationId, Key key, Entry loaded) {
+        if (loaded.response() != null && isCurrent(integrationId, loaded)) {
+            evaluations.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private boolean isCurrent(String integrationId, Entry entry) {
+        Long invalidatedAt = invalidations.getIfPresent(integrationId);
+        return invalidatedAt == null || entry.sequence() > invalidatedAt;
+    }
+
+    /**
+     * Canonical cache key: the same cart in a different item order yields the same key.
+     */
+    record Key(String integrationId, long cartTotal, long fingerprintHigh, long fingerprintLow) {
+
+        static Key of(SessionDTO session) {
+            // Sessions built from a priced cart reuse its fingerprint
+            PricedCart pricing = session.getPricing() != null
+                    ? session.getPricing() : CartPricer.price(session.getCartItems());
+            return new Key(session.getIntegrationId(), session.getCartTotal(),
+                    pricing.fingerprintHigh(), pricing.fingerprintLow());
+        }
+
+        /**
+         * Approximate retained size in bytes, part of the Caffeine weight.
+         */
+        int weight() {
+            return 40 + 48 + (integrationId != null ? integrationId.length() : 0);
+        }
+    }
+
+    /**
+     * A cached evaluation and the sequence number at which it was started.
+     */
+    private record Entry(RewardsResponse response, long sequence) {
+
+        /**
+         * Approximate retained size in bytes, part of the Caffeine weight.
+         */
+        int weight() {
+            int bytes = 64 + 48;
+            if (response != null && response.getDiscounts() != null) {
+                for (DiscountDTO discount : response.getDiscounts()) {
+                    bytes += 48 + length(discount.getCode()) * 2 + length(discount.getDescription()) * 2;
+                }
+            }
+            return bytes;
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+}
@@ -4,33 +4,60 @@ import com.app.model.User;
 import com.app.model.UserDTO;
 import com.app.model.UserStatsUpdateRequest;
 import com.app.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
-lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.NoSuchElementException;
-import java.util.Optional;
 
 /**
  * Service layer for user management.
  * Handles business logic related to user retrieval and statistics updates.
+ *
+ * <p>
+ * User views are read through a short-lived cache (app.user-cache.ttl-seconds, default 10;
+ * app.user-cache.max-entries, default 100000) that is invalidated once a statistics update commits.
+ * Cached views are shared between requests and must be treated as read-only.
+ * </p>
  */
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final Cache<Long, UserDTO> userViews;
+
+    public UserService(UserRepository userRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.user-cache.ttl-seconds:10}") long ttlSeconds,
+                       @Value("${app.user-cache.max-entries:100000}") long maxEntries) {
+        this.userRepository = userRepository;
+        this.userViews = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userViews, "users");
+    }
 
     /**
      * Retrieves a user by their ID.
+     * Only the DTO columns are selected, and the result is cached until the TTL or the next stats update.
      * @param id The ID of the user.
      * @return The UserDTO representing the user.
      * @throws NoSuchElementException if the user does not exist.
      */
     public UserDTO getUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("User not found with id: " + id));
-        return UserDTO.fromEntity(user);
+        UserDTO user = userViews.get(id, key -> userRepository.findDtoById(key).orElse(null));
+        if (user == null) {
+            throw new NoSuchElementException("User not found with id: " + id);
+        }
+        return user;
     }
 
     /**
@@ -45,6 +72,7 @@ public class UserService {
         user.setTotalOrders(request.getTotalOrders());
         user.setTotalSpent(request.getTotalSpent());
         userRepository.save(user);
+        evictAfterCommit(id);
     }
 
     /**
@@ -58,14 +86,67 @@ public class UserService {
 
     /**
      * Updates user after a successful order, e.g., incrementing order count, updating spent, loyalty, etc.
+     * The counters are incremented and the redeemed loyalty points deducted in the database in a single
+     * statement, so concurrent orders of the same user are all counted and cannot redeem the same points twice;
+     * the given entity is not modified.
      * @param user The user entity.
      * @param order The order entity.
      * @param rewardsResult The rewards response.
+     * @throws NoSuchElementException if the user does not exist.
+     * @throws InsufficientLoyaltyPointsException if the user no longer has the redeemed points.
      */
     public void updateUserAfterOrder(User user, com.app.model.Order order, com.app.model.RewardsResponse rewardsResult) {
-        user.setTotalOrders(user.getTotalOrders() + 1);
-        user.setTotalSpent(user.getTotalSpent() + order.getTotal());
-        // Optionally update loyalty points or other fields based on rewardsResult
-        userRepository.save(user);
+        int pointsUsed = rewardsResult != null ? rewardsResult.getLoyaltyPointsUsed() : 0;
+        recordOrders(user.getId(), 1, order.getTotal(), pointsUsed);
+    }
+
+    /**
+     * Adds several orders of one user to their statistics in a single update, e.g. for a batch import.
+     * @param userId The user ID.
+     * @param orders The number of orders placed.
+     * @param amount The sum of the order totals in cents.
+     * @throws NoSuchElementException if the user does not exist.
+     */
+    public void recordOrders(Long userId, int orders, long amount) {
+        recordOrders(userId, orders, amount, 0);
+    }
+
+    /**
+     * Adds orders to the user's statistics and deducts the loyalty points they redeemed, in a single update.
+     * The points are deducted whether they were redeemed locally or by Talon.One, whose profile is kept in sync
+     * from the user's balance.
+     * @param userId The user ID.
+     * @param orders The number of orders placed.
+     * @param amount The sum of the order totals in cents.
+     * @param loyaltyPoints The loyalty points redeemed by the orders.
+     * @throws NoSuchElementException if the user does not exist.
+     * @throws InsufficientLoyaltyPointsException if the user no longer has the points, e.g. because a
+     *         concurrent order redeemed them; the surrounding transaction should roll back.
+     */
+    public void recordOrders(Long userId, int orders, long amount, int loyaltyPoints) {
+        if (userRepository.incrementOrderStats(userId, orders, amount, loyaltyPoints) == 0) {
+            if (loyaltyPoints > 0 && userRepository.existsById(userId)) {
+                throw new InsufficientLoyaltyPointsException(userId, loyaltyPoints);
+            }
+            throw new NoSuchElementException("User not found with id: " + userId);
+        }
+        evictAfterCommit(userId);
+    }
+
+    /**
+     * Drops the cached view once the surrounding transaction commits, so a concurrent read cannot
+     * re-cache the old state in between; without a transaction the view is dropped immediately.
+     */
+    private void evictAfterCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userViews.invalidate(id);
+                }
+            });
+        } else {
+            userViews.invalidate(id);
+        }
     }
 }
@@ -0,0 +1,67 @@
+package com.app.talonone;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pooling connection manager that records how long callers wait for a connection lease
+ * and whether the leased connection was reused or has to be opened (TCP + TLS handshake).
+ */
+class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer leaseTimer;
+    private final Counter reusedConnections;
+    private final Counter newConnections;
+
+    InstrumentedConnectionManager(Timer leaseTimer, Counter reusedConnections, Counter newConnections) {
+        this.leaseTimer = leaseTimer;
+        this.reusedConnections = reusedConnections;
+        this.newConnections = newConnections;
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+        long start = System.nanoTime();
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                try {
+                    ConnectionEndpoint endpoint = delegate.get(timeout);
+                    if (endpoint.isConnected()) {
+                        reusedConnections.increment();
+                    } else {
+                        newConnections.increment();
+                    }
+                    return endpoint;
+                } finally {
+                    leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+
+    /**
+     * @return the fraction of leases served by an already open connection, or 0 before the first lease
+     */
+    double reuseRatio() {
+        double reused = reusedConnections.count();
+        double total = reused + newConnections.count();
+        return total == 0 ? 0.0 : reused / total;
+    }
+}
@@ -0,0 +1,130 @@
+package com.app.talonone;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses identical in-flight Talon.One calls into one remote call (single-flight).
+ * The first caller for a key runs the call; callers arriving while it is in flight wait for and share
+ * its result, including a failure. Once the call completes the key is released and the next caller
+ * starts a fresh call, so nothing is cached here.
+ *
+ * <p>
+ * In-flight calls are tracked in a {@link ConcurrentHashMap}, which only locks the hash bin of a key while
+ * registering or releasing it and never while the remote call runs, so callers with different keys
+ * (e.g. unrelated users) do not contend.
+ * </p>
+ *
+ * <p>
+ * Metrics: {@code talonone.coalescer.calls} tagged with {@code name} and {@code role} (leader, follower).
+ * </p>
+ *
+ * @param <K> key identifying identical requests; must implement equals/hashCode
+ * @param <V> result type
+ */
+public class RequestCoalescer<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight;
+    private final Counter leaders;
+    private final Counter followers;
+
+    /**
+     * @param name the name used as metric tag, e.g. "sessions"
+     * @param meterRegistry the registry to publish counters to
+     */
+    public RequestCoalescer(String name, MeterRegistry meterRegistry) {
+        this.inFlight = new ConcurrentHashMap<>(256);
+        this.leaders = meterRegistry.counter("talonone.coalescer.calls", "name", name, "role", "leader");
+        this.followers = meterRegistry.counter("talonone.coalescer.calls", "name", name, "role", "follower");
+    }
+
+    /**
+     * Runs the call, or joins the identical call already in flight for the key.
+     * @param key identifies identical requests
+     * @param call the remote call
+     * @return the result of the call that was run for the key
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            followers.increment();
+            return await(leader);
+        }
+
+        leaders.increment();
+        try {
+            V result = call.get();
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            pending.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute}: starts the call, or joins the identical call already in flight
+     * for the key, without waiting for it. The key is released once the call's future completes.
+     * Blocking and non-blocking callers of the same key share one call.
+     * @param key identifies identical requests
+     * @param call starts the remote call
+     * @return a future of the call that was run for the key; completing it does not affect other callers
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<? extends CompletionStage<V>> call) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            followers.increment();
+            return leader.copy();
+        }
+
+        leaders.increment();
+        CompletionStage<V> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, pending);
+            pending.completeExceptionally(ex);
+            throw ex;
+        }
+        started.whenComplete((result, failure) -> {
+            inFlight.remove(key, pending);
+            if (failure != null) {
+                pending.completeExceptionally(failure);
+            } else {
+                pending.complete(result);
+            }
+        });
+        return pending.copy();
+    }
+
+    /**
+     * @return the number of distinct calls currently in flight
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+}
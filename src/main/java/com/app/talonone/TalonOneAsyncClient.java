@@ -0,0 +1,214 @@
+package com.app.talonone;
+
+import com.app.config.ExecutorFactory;
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Non-blocking counterpart of {@link TalonOneClient}.
+ * Requests are sent with the JDK HTTP client, which negotiates HTTP/2 when Talon.One supports it and
+ * multiplexes concurrent calls over a few connections. No thread is held while a response is outstanding,
+ * so thousands of evaluations can be in flight with the small callback pool configured here.
+ *
+ * <p>
+ * Errors are translated the same way as in {@link TalonOneClient}: the returned future completes
+ * exceptionally with a {@link RestClientException} (a {@link ResourceAccessException} for I/O failures).
+ * Calls go through the same circuit breakers and bulkheads as the blocking client ({@link TalonOneResilience}),
+ * and bodies are encoded and decoded by the same {@link TalonOneCodec}. The JDK client publishes request bodies
+ * from memory, so they are serialized into a byte[] first.
+ * Each request is timed as {@code talonone.client.async.requests} tagged with {@code endpoint},
+ * {@code status} and {@code outcome}.
+ * </p>
+ *
+ * <p>
+ * Configuration properties (optional, besides talonone.base-url and talonone.api-key):
+ * <ul>
+ *     <li>talonone.http.connect-timeout-ms=2000</li>
+ *     <li>talonone.http.read-timeout-ms=5000</li>
+ *     <li>talonone.async.threads=4 - threads running response callbacks</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class TalonOneAsyncClient implements DisposableBean {
+
+    @Value("${talonone.base-url}")
+    private String baseUrl;
+
+    @Value("${talonone.api-key}")
+    private String apiKey;
+
+    private final TalonOneCodec codec;
+    private final TalonOneResilience resilience;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService callbackExecutor;
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+
+    public TalonOneAsyncClient(TalonOneCodec codec,
+                               TalonOneResilience resilience,
+                               ExecutorFactory executorFactory,
+                               MeterRegistry meterRegistry,
+                               @Value("${talonone.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                               @Value("${talonone.http.read-timeout-ms:5000}") long readTimeoutMs,
+                               @Value("${talonone.async.threads:4}") int threads) {
+        this.codec = codec;
+        this.resilience = resilience;
+        this.meterRegistry = meterRegistry;
+        this.callbackExecutor = executorFactory.bounded("talonone-async-", threads);
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(callbackExecutor)
+                .build();
+    }
+
+    /**
+     * Asynchronously updates a user profile in Talon.One.
+     *
+     * @param userId the unique identifier of the user
+     * @param dto the profile data to update
+     * @return a future completing when Talon.One has accepted the profile
+     * @throws IllegalArgumentException if userId or dto is null
+     */
+    public CompletableFuture<Void> updateProfile(String userId, ProfileDTO dto) {
+        if (userId == null || dto == null) {
+            throw new IllegalArgumentException("userId and dto must not be null");
+        }
+        HttpRequest request = newRequest(String.format("%s/v1/profiles/%s", baseUrl, userId))
+                .PUT(jsonBody((codec, out) -> codec.writeProfile(dto, out)))
+                .build();
+        return send(TalonOneEndpoint.PROFILES, request, "Failed to update profile in Talon.One: ")
+                .thenApply(body -> null);
+    }
+
+    /**
+     * Asynchronously evaluates a session in Talon.One to determine applicable rewards and discounts.
+     *
+     * @param dto the session data to evaluate
+     * @return a future with the RewardsResponse containing rewards and discounts
+     * @throws IllegalArgumentException if dto is null
+     */
+    public CompletableFuture<RewardsResponse> evaluateSession(SessionDTO dto) {
+        if (dto == null) {
+            throw new IllegalArgumentException("SessionDTO must not be null");
+        }
+        HttpRequest request = newRequest(String.format("%s/v1/sessions", baseUrl))
+                .POST(jsonBody((codec, out) -> codec.writeSession(dto, out)))
+                .build();
+        return send(TalonOneEndpoint.SESSIONS, request, "Failed to evaluate session in Talon.One: ")
+                .thenApply(this::readRewards);
+    }
+
+    /**
+     * Asynchronously confirms the usage of loyalty points for a user in Talon.One.
+     *
+     * @param userId the unique identifier of the user
+     * @param totalAmount the total amount in cents for which loyalty points are being confirmed
+     * @return a future completing when Talon.One has confirmed the loyalty usage
+     * @throws IllegalArgumentException if userId is null
+     */
+    public CompletableFuture<Void> confirmLoyalty(String userId, long totalAmount) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId must not be null");
+        }
+        HttpRequest request = newRequest(String.format("%s/v1/loyalty/%s/confirm", baseUrl, userId))
+                .POST(jsonBody((codec, out) -> codec.writeLoyaltyConfirmation(totalAmount, out)))
+                .build();
+        return send(TalonOneEndpoint.LOYALTY, request, "Failed to confirm loyalty in Talon.One: ")
+                .thenApply(responseBody -> null);
+    }
+
+    private HttpRequest.Builder newRequest(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(readTimeout)
+                .header("Authorization", "ApiKey-v1 " + apiKey)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(TalonOneCodec.Body body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(codec.toBytes(body));
+        } catch (IOException ex) {
+            throw new RestClientException("Failed to serialize Talon.One request", ex);
+        }
+    }
+
+    /**
+     * Sends the request and completes with the response body, or exceptionally with a
+     * RestClientException for non-2xx statuses and I/O failures.
+     */
+    private CompletableFuture<byte[]> send(TalonOneEndpoint endpoint, HttpRequest request, String errorPrefix) {
+        return resilience.executeAsync(endpoint, () -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .handle((response, failure) -> {
+                        record(sample, endpoint, response != null ? response.statusCode() : -1);
+                        if (failure != null) {
+                            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                                    ? failure.getCause() : failure;
+                            throw new ResourceAccessException(errorPrefix + cause.getMessage(),
+                                    cause instanceof IOException io ? io : new IOException(cause));
+                        }
+                        if (response.statusCode() >= 400) {
+                            HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+                            RestClientException cause = status.is4xxClientError()
+                                    ? HttpClientErrorException.create(status, "", null, response.body(), null)
+                                    : HttpServerErrorException.create(status, "", null, response.body(), null);
+                            throw new RestClientException(errorPrefix + new String(response.body()), cause);
+                        }
+                        return response.body();
+                    });
+        });
+    }
+
+    private void record(Timer.Sample sample, TalonOneEndpoint endpoint, int status) {
+        String outcome = status < 0 ? "UNKNOWN" : status < 400 ? "SUCCESS" : status < 500 ? "CLIENT_ERROR" : "SERVER_ERROR";
+        sample.stop(Timer.builder("talonone.client.async.requests")
+                .tag("endpoint", endpoint.key())
+                .tag("status", status < 0 ? "IO_ERROR" : String.valueOf(status))
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private RewardsResponse readRewards(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return codec.readRewards(body);
+        } catch (IOException ex) {
+            throw new RestClientException("Failed to read Talon.One session response", ex);
+        }
+    }
+
+    /**
+     * Stops the callback threads when the application context shuts down.
+     */
+    @Override
+    public void destroy() {
+        callbackExecutor.shutdown();
+    }
+}
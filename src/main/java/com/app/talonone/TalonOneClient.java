@@ -2,11 +2,14 @@ package com.app.talonone;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
 
 /**
  * TalonOneClient is a reusable and centralized client for interacting with the Talon.One Integration API.
@@ -21,7 +24,7 @@ import org.springframework.web.client.RestTemplate;
  *
  *     talonOneClient.updateProfile("user123", profileDTO);
  *     RewardsResponse rewards = talonOneClient.evaluateSession(sessionDTO);
- *     talonOneClient.confirmLoyalty("user123", 99.99);
+ *     talonOneClient.confirmLoyalty("user123", 9999L);
  * </pre>
  * </p>
  *
@@ -31,6 +34,14 @@ import org.springframework.web.client.RestTemplate;
  *     <li>talonone.base-url=https://your.talon.one/api</li>
  *     <li>talonone.api-key=YOUR_API_KEY</li>
  * </ul>
+ * Connection pooling and timeouts are configured on {@link TalonOneTransport}. Every call goes through
+ * the circuit breaker and bulkhead of its endpoint ({@link TalonOneResilience}) and fails fast with
+ * {@link TalonOneUnavailableException} while Talon.One is degraded.
+ * </p>
+ *
+ * <p>
+ * Request and response bodies are written and read by {@link TalonOneCodec} straight on the connection's
+ * streams rather than through RestTemplate's message converters.
  * </p>
  */
 @Component
@@ -42,14 +53,20 @@ public class TalonOneClient {
     @Value("${talonone.api-key}")
     private String apiKey;
 
-    private final RestTemplate restTemplate;
+    private final TalonOneTransport transport;
+    private final TalonOneResilience resilience;
+    private final TalonOneCodec codec;
 
     /**
-     * Constructs a TalonOneClient with a provided RestTemplate.
-     * @param restTemplate the RestTemplate to use for HTTP requests
+     * Constructs a TalonOneClient on top of the pooled Talon.One transport.
+     * @param transport the transport providing a pooled RestTemplate per endpoint
+     * @param resilience the circuit breakers and bulkheads guarding each endpoint
+     * @param codec the codec writing request bodies and reading responses
      */
-    public TalonOneClient(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public TalonOneClient(TalonOneTransport transport, TalonOneResilience resilience, TalonOneCodec codec) {
+        this.transport = transport;
+        this.resilience = resilience;
+        this.codec = codec;
     }
 
     /**
@@ -59,18 +76,18 @@ public class TalonOneClient {
      * @param dto the profile data to update
      * @throws IllegalArgumentException if userId or dto is null
      * @throws RestClientException if the Talon.One API call fails
+     * @throws TalonOneUnavailableException if the endpoint's circuit is open or its bulkhead is full
      */
     public void updateProfile(String userId, com.app.model.ProfileDTO dto) {
         if (userId == null || dto == null) {
             throw new IllegalArgumentException("userId and dto must not be null");
         }
         String url = String.format("%s/v1/profiles/%s", baseUrl, userId);
-        HttpHeaders headers = createHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<com.app.model.ProfileDTO> request = new HttpEntity<>(dto, headers);
+        RequestCallback request = jsonRequest(null, (codec, out) -> codec.writeProfile(dto, out));
 
         try {
-            restTemplate.exchange(url, HttpMethod.PUT, request, Void.class);
+            resilience.execute(TalonOneEndpoint.PROFILES, () -> transport.restTemplate(TalonOneEndpoint.PROFILES)
+                    .execute(url, HttpMethod.PUT, request, null));
         } catch (HttpClientErrorException | HttpServerErrorException ex) {
             // Log or handle specific HTTP errors as needed
             throw new RestClientException("Failed to update profile in Talon.One: " + ex.getResponseBodyAsString(), ex);
@@ -84,20 +101,19 @@ public class TalonOneClient {
      * @return RewardsResponse containing rewards and discounts
      * @throws IllegalArgumentException if dto is null
      * @throws RestClientException if the Talon.One API call fails
+     * @throws TalonOneUnavailableException if the endpoint's circuit is open or its bulkhead is full
      */
     public com.app.model.RewardsResponse evaluateSession(com.app.model.SessionDTO dto) {
         if (dto == null) {
             throw new IllegalArgumentException("SessionDTO must not be null");
         }
         String url = String.format("%s/v1/sessions", baseUrl);
-        HttpHeaders headers = createHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<com.app.model.SessionDTO> request = new HttpEntity<>(dto, headers);
+        RequestCallback request = jsonRequest(null, (codec, out) -> codec.writeSession(dto, out));
 
         try {
-            ResponseEntity<com.app.model.RewardsResponse> response = restTemplate.exchange(
-                    url, HttpMethod.POST, request, com.app.model.RewardsResponse.class);
-            return response.getBody();
+            return resilience.execute(TalonOneEndpoint.SESSIONS,
+                    () -> transport.restTemplate(TalonOneEndpoint.SESSIONS).execute(
+                            url, HttpMethod.POST, request, response -> codec.readRewards(response.getBody())));
         } catch (HttpClientErrorException | HttpServerErrorException ex) {
             throw new RestClientException("Failed to evaluate session in Talon.One: " + ex.getResponseBodyAsString(), ex);
         }
@@ -107,35 +123,74 @@ public class TalonOneClient {
      * Confirms the usage of loyalty points for a user in Talon.One.
      *
      * @param userId the unique identifier of the user
-     * @param totalAmount the total amount for which loyalty points are being confirmed
+     * @param totalAmount the total amount in cents for which loyalty points are being confirmed
      * @throws IllegalArgumentException if userId is null
      * @throws RestClientException if the Talon.One API call fails
+     * @throws TalonOneUnavailableException if the endpoint's circuit is open or its bulkhead is full
      */
-    public void confirmLoyalty(String userId, double totalAmount) {
+    public void confirmLoyalty(String userId, long totalAmount) {
+        confirmLoyalty(userId, totalAmount, null);
+    }
+
+    /**
+     * Confirms the usage of loyalty points with an idempotency key, so a retried confirmation
+     * is applied only once by Talon.One.
+     *
+     * @param userId the unique identifier of the user
+     * @param totalAmount the total amount in cents for which loyalty points are being confirmed
+     * @param idempotencyKey the key sent as Idempotency-Key header, or null to send none
+     * @throws IllegalArgumentException if userId is null
+     * @throws RestClientException if the Talon.One API call fails
+     * @throws TalonOneUnavailableException if the endpoint's circuit is open or its bulkhead is full
+     */
+    public void confirmLoyalty(String userId, long totalAmount, String idempotencyKey) {
         if (userId == null) {
             throw new IllegalArgumentException("userId must not be null");
         }
         String url = String.format("%s/v1/loyalty/%s/confirm", baseUrl, userId);
-        HttpHeaders headers = createHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
         // Assuming the API expects a JSON body like: {"totalAmount": ...}
-        String body = String.format("{\"totalAmount\": %.2f}", totalAmount);
-        HttpEntity<String> request = new HttpEntity<>(body, headers);
+        RequestCallback request = jsonRequest(idempotencyKey,
+                (codec, out) -> codec.writeLoyaltyConfirmation(totalAmount, out));
 
         try {
-            restTemplate.exchange(url, HttpMethod.POST, request, Void.class);
+            resilience.execute(TalonOneEndpoint.LOYALTY, () -> transport.restTemplate(TalonOneEndpoint.LOYALTY)
+                    .execute(url, HttpMethod.POST, request, null));
         } catch (HttpClientErrorException | HttpServerErrorException ex) {
             throw new RestClientException("Failed to confirm loyalty in Talon.One: " + ex.getResponseBodyAsString(), ex);
         }
     }
 
     /**
-     * Creates HTTP headers with the Authorization header for Talon.One API.
-     * @return HttpHeaders with the API key set
+     * Creates a request callback that sets the Talon.One headers and streams the JSON body
+     * to the connection as the request is sent.
+     * @param idempotencyKey the key sent as Idempotency-Key header, or null to send none
+     * @param body writes the request body with the codec
+     */
+    private RequestCallback jsonRequest(String idempotencyKey, TalonOneCodec.Body body) {
+        return request -> {
+            HttpHeaders headers = request.getHeaders();
+            createHeaders(headers);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            if (idempotencyKey != null) {
+                headers.set("Idempotency-Key", idempotencyKey);
+            }
+            writeBody(request, body);
+        };
+    }
+
+    private void writeBody(ClientHttpRequest request, TalonOneCodec.Body body) throws IOException {
+        if (request instanceof StreamingHttpOutputMessage streaming) {
+            streaming.setBody(out -> body.writeTo(codec, out));
+        } else {
+            body.writeTo(codec, request.getBody());
+        }
+    }
+
+    /**
+     * Sets the Authorization header for Talon.One API.
+     * @param headers the request headers to add the API key to
      */
-    private HttpHeaders createHeaders() {
-        HttpHeaders headers = new HttpHeaders();
+    private void createHeaders(HttpHeaders headers) {
         headers.set("Authorization", "ApiKey-v1 " + apiKey);
-        return headers;
     }
 }
@@ -0,0 +1,275 @@
+package com.app.talonone;
+
+import com.app.model.DiscountDTO;
+import com.app.model.ItemDTO;
+import com.app.model.Money;
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written JSON codec for the Talon.One payloads on the checkout path.
+ * Documents are streamed with Jackson's generator and parser directly to and from the HTTP connection,
+ * without building a tree, a byte[] of the whole body or looking up bean serializers by reflection.
+ * Field names are pre-encoded, amounts go through {@link Money#write} and {@link Money#read},
+ * and the generator and parser buffers are recycled per thread by the {@link JsonFactory}.
+ *
+ * <p>
+ * The output is byte-for-byte what the default Jackson converter writes for the same DTOs, so the two are
+ * interchangeable. Unknown response fields are skipped, as Talon.One returns more than {@link RewardsResponse}
+ * maps. A field added to one of the DTOs must be added here as well.
+ * </p>
+ */
+@Component
+public class TalonOneCodec {
+
+    private static final SerializableString INTEGRATION_ID = new SerializedString("integrationId");
+    private static final SerializableString CART_ITEMS = new SerializedString("cartItems");
+    private static final SerializableString CART_TOTAL = new SerializedString("cartTotal");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString SKU = new SerializedString("sku");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString QUANTITY = new SerializedString("quantity");
+    private static final SerializableString PRICE = new SerializedString("price");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString TOTAL_ORDERS = new SerializedString("totalOrders");
+    private static final SerializableString TOTAL_SPENT = new SerializedString("totalSpent");
+    private static final SerializableString LOYALTY_POINTS = new SerializedString("loyaltyPoints");
+    private static final SerializableString TOTAL_AMOUNT = new SerializedString("totalAmount");
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * @param objectMapper the application's ObjectMapper, whose factory settings (e.g. escaping) are shared
+     */
+    public TalonOneCodec(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Writes the session evaluation request. The stream is flushed but not closed.
+     */
+    public void writeSession(SessionDTO session, OutputStream out) throws IOException {
+        try (JsonGenerator gen = generator(out)) {
+            gen.writeStartObject();
+            gen.writeFieldName(INTEGRATION_ID);
+            gen.writeString(session.getIntegrationId());
+            gen.writeFieldName(CART_ITEMS);
+            List<ItemDTO> items = session.getCartItems();
+            if (items == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray();
+                for (int i = 0; i < items.size(); i++) {
+                    writeItem(gen, items.get(i));
+                }
+                gen.writeEndArray();
+            }
+            gen.writeFieldName(CART_TOTAL);
+            Money.write(gen, session.getCartTotal());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the customer profile update. The stream is flushed but not closed.
+     */
+    public void writeProfile(ProfileDTO profile, OutputStream out) throws IOException {
+        try (JsonGenerator gen = generator(out)) {
+            gen.writeStartObject();
+            gen.writeFieldName(INTEGRATION_ID);
+            gen.writeString(profile.getIntegrationId());
+            gen.writeFieldName(EMAIL);
+            gen.writeString(profile.getEmail());
+            gen.writeFieldName(NAME);
+            gen.writeString(profile.getName());
+            gen.writeFieldName(TOTAL_ORDERS);
+            gen.writeNumber(profile.getTotalOrders());
+            gen.writeFieldName(TOTAL_SPENT);
+            Money.write(gen, profile.getTotalSpent());
+            gen.writeFieldName(LOYALTY_POINTS);
+            gen.writeNumber(profile.getLoyaltyPoints());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the loyalty confirmation body, {@code {"totalAmount":12.99}}. The stream is flushed but not closed.
+     * @param totalAmount the confirmed amount in cents
+     */
+    public void writeLoyaltyConfirmation(long totalAmount, OutputStream out) throws IOException {
+        try (JsonGenerator gen = generator(out)) {
+            gen.writeStartObject();
+            gen.writeFieldName(TOTAL_AMOUNT);
+            Money.write(gen, totalAmount);
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Reads a session evaluation response.
+     * @return the rewards, or null for an empty body or a JSON null
+     * @throws JsonParseException if the body is not a rewards document
+     */
+    public RewardsResponse readRewards(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            return readRewards(parser);
+        }
+    }
+
+    /**
+     * Reads a session evaluation response that was received in full.
+     * @return the rewards, or null for an empty body or a JSON null
+     * @throws JsonParseException if the body is not a rewards document
+     */
+    public RewardsResponse readRewards(byte[] body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return readRewards(parser);
+        }
+    }
+
+    /**
+     * Serializes into a byte[], for clients that cannot stream the request body.
+     */
+    public byte[] toBytes(Body body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        body.writeTo(this, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * A request body written by one of the codec's write methods,
+     * e.g. {@code (codec, out) -> codec.writeSession(session, out)}.
+     */
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(TalonOneCodec codec, OutputStream out) throws IOException;
+    }
+
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        // The connection's stream belongs to the HTTP client
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return gen;
+    }
+
+    private static void writeItem(JsonGenerator gen, ItemDTO item) throws IOException {
+        if (item == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        if (item.getId() != null) {
+            gen.writeNumber(item.getId());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(SKU);
+        gen.writeString(item.getSku());
+        gen.writeFieldName(NAME);
+        gen.writeString(item.getName());
+        gen.writeFieldName(QUANTITY);
+        if (item.getQuantity() != null) {
+            gen.writeNumber(item.getQuantity());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(PRICE);
+        if (item.getPrice() != null) {
+            Money.write(gen, item.getPrice());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeEndObject();
+    }
+
+    private static RewardsResponse readRewards(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        RewardsResponse rewards = new RewardsResponse();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "totalDiscount" -> rewards.setTotalDiscount(readMoney(parser));
+                case "discounts" -> rewards.setDiscounts(readDiscounts(parser));
+                case "loyaltyUsed" -> rewards.setLoyaltyUsed(parser.getValueAsBoolean());
+                case "loyaltyPointsUsed" -> rewards.setLoyaltyPointsUsed(parser.getValueAsInt());
+                case "loyaltyPointsRemaining" -> rewards.setLoyaltyPointsRemaining(parser.getValueAsInt());
+                default -> parser.skipChildren();
+            }
+        }
+        return rewards;
+    }
+
+    private static List<DiscountDTO> readDiscounts(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, JsonToken.START_ARRAY);
+        List<DiscountDTO> discounts = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                discounts.add(null);
+                continue;
+            }
+            expect(parser, JsonToken.START_OBJECT);
+            DiscountDTO discount = new DiscountDTO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "code" -> discount.setCode(parser.getValueAsString());
+                    case "description" -> discount.setDescription(parser.getValueAsString());
+                    case "amount" -> discount.setAmount(readMoney(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+            discounts.add(discount);
+        }
+        return discounts;
+    }
+
+    private static long readMoney(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return 0L;
+        }
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                && token != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Expected a money amount but found " + token);
+        }
+        try {
+            return Money.read(parser);
+        } catch (NumberFormatException | ArithmeticException ex) {
+            throw new JsonParseException(parser, "Not a money amount: " + parser.getText(), ex);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken expected) throws IOException {
+        if (parser.currentToken() != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + parser.currentToken());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.app.talonone;
+
+/**
+ * The Talon.One Integration API endpoints used by {@link TalonOneClient}.
+ * Each endpoint gets its own connection budget in {@link TalonOneTransport}, so a slow
+ * loyalty endpoint cannot starve session evaluations on the checkout path.
+ */
+public enum TalonOneEndpoint {
+    PROFILES("profiles", "/v1/profiles/{integrationId}", 20),
+    SESSIONS("sessions", "/v1/sessions", 50),
+    LOYALTY("loyalty", "/v1/loyalty/{integrationId}/confirm", 10);
+
+    private final String key;
+    private final String uriTemplate;
+    private final int defaultMaxConnections;
+
+    TalonOneEndpoint(String key, String uriTemplate, int defaultMaxConnections) {
+        this.key = key;
+        this.uriTemplate = uriTemplate;
+        this.defaultMaxConnections = defaultMaxConnections;
+    }
+
+    /**
+     * @return the short name used in configuration properties and metric tags
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * @return the path of the endpoint without user ids, used as the uri tag of client metrics
+     */
+    public String uriTemplate() {
+        return uriTemplate;
+    }
+
+    /**
+     * @return the pool size used when talonone.http.pool.&lt;key&gt;.max-connections is not set
+     */
+    public int defaultMaxConnections() {
+        return defaultMaxConnections;
+    }
+}
@@ -0,0 +1,32 @@
+package com.app.talonone;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+
+/**
+ * Names Talon.One client observations {@code talonone.client.requests} and tags them with the endpoint.
+ * The uri tag is the endpoint's template, so user ids in the path do not create a time series per user.
+ */
+class TalonOneObservationConvention extends DefaultClientRequestObservationConvention {
+
+    static final String NAME = "talonone.client.requests";
+
+    private final TalonOneEndpoint endpoint;
+
+    TalonOneObservationConvention(TalonOneEndpoint endpoint) {
+        super(NAME);
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("endpoint", endpoint.key()));
+    }
+
+    @Override
+    protected KeyValue uri(ClientRequestObservationContext context) {
+        return KeyValue.of("uri", endpoint.uriTemplate());
+    }
+}
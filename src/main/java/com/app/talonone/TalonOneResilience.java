@@ -0,0 +1,171 @@
+package com.app.talonone;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead per {@link TalonOneEndpoint}.
+ * When Talon.One degrades, calls fail fast with {@link TalonOneUnavailableException} instead of piling up
+ * request threads in the HTTP client, so endpoints that do not need rewards keep working.
+ *
+ * <p>
+ * Only server errors, timeouts and I/O failures count towards opening a circuit; 4xx responses are
+ * caller errors and are ignored by the breaker. resilience4j counts a call it does not record as a success,
+ * so 4xx responses are ignored outright rather than left unrecorded, and the bulkhead sits outside the breaker:
+ * a call rejected by a full bulkhead never reaches the breaker and cannot dilute the failure rate of an outage
+ * or close a half-open circuit.
+ * </p>
+ *
+ * <p>
+ * Configuration properties (optional):
+ * <ul>
+ *     <li>talonone.resilience.failure-rate-threshold=50 - percent of failed calls that opens the circuit</li>
+ *     <li>talonone.resilience.slow-call-threshold-ms=2000 - calls slower than this count as slow</li>
+ *     <li>talonone.resilience.sliding-window-size=50 and minimum-calls=20</li>
+ *     <li>talonone.resilience.open-state-seconds=30 - how long the circuit stays open before probing</li>
+ *     <li>talonone.resilience.&lt;profiles|sessions|loyalty&gt;.max-concurrent-calls - defaults to the endpoint's
+ *     talonone.http.pool.&lt;key&gt;.max-connections</li>
+ * </ul>
+ * Metrics: the standard resilience4j circuit breaker and bulkhead meters (tagged by name
+ * {@code talonone-<endpoint>}) plus {@code talonone.circuitbreaker.transitions} (tags {@code name},
+ * {@code from}, {@code to}) and {@code talonone.bulkhead.rejections} (tag {@code name}).
+ * </p>
+ */
+@Slf4j
+@Component
+public class TalonOneResilience {
+
+    private final Map<TalonOneEndpoint, CircuitBreaker> circuitBreakers = new EnumMap<>(TalonOneEndpoint.class);
+    private final Map<TalonOneEndpoint, Bulkhead> bulkheads = new EnumMap<>(TalonOneEndpoint.class);
+
+    public TalonOneResilience(Environment environment,
+                              MeterRegistry meterRegistry,
+                              @Value("${talonone.resilience.failure-rate-threshold:50}") float failureRateThreshold,
+                              @Value("${talonone.resilience.slow-call-threshold-ms:2000}") long slowCallThresholdMs,
+                              @Value("${talonone.resilience.sliding-window-size:50}") int slidingWindowSize,
+                              @Value("${talonone.resilience.minimum-calls:20}") int minimumCalls,
+                              @Value("${talonone.resilience.open-state-seconds:30}") long openStateSeconds) {
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallThresholdMs))
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(Duration.ofSeconds(openStateSeconds))
+                .permittedNumberOfCallsInHalfOpenState(5)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreException(TalonOneResilience::isCallerError)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+
+        for (TalonOneEndpoint endpoint : TalonOneEndpoint.values()) {
+            String name = "talonone-" + endpoint.key();
+            int poolSize = environment.getProperty("talonone.http.pool." + endpoint.key() + ".max-connections",
+                    Integer.class, endpoint.defaultMaxConnections());
+            int maxConcurrentCalls = environment.getProperty(
+                    "talonone.resilience." + endpoint.key() + ".max-concurrent-calls", Integer.class, poolSize);
+
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+            circuitBreaker.getEventPublisher().onStateTransition(event -> {
+                log.warn("Talon.One circuit {} changed {}", name, event.getStateTransition());
+                meterRegistry.counter("talonone.circuitbreaker.transitions", "name", name,
+                        "from", event.getStateTransition().getFromState().name(),
+                        "to", event.getStateTransition().getToState().name()).increment();
+            });
+
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(name, BulkheadConfig.custom()
+                    .maxConcurrentCalls(maxConcurrentCalls)
+                    .maxWaitDuration(Duration.ZERO)
+                    .build());
+            bulkhead.getEventPublisher().onCallRejected(event ->
+                    meterRegistry.counter("talonone.bulkhead.rejections", "name", name).increment());
+
+            circuitBreakers.put(endpoint, circuitBreaker);
+            bulkheads.put(endpoint, bulkhead);
+        }
+    }
+
+    /**
+     * Runs a blocking call through the bulkhead, then the circuit breaker of the endpoint.
+     * @param endpoint the Talon.One endpoint being called
+     * @param call the remote call
+     * @return the result of the call
+     * @throws TalonOneUnavailableException if the circuit is open or the bulkhead is full
+     */
+    public <T> T execute(TalonOneEndpoint endpoint, Supplier<T> call) {
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkheads.get(endpoint),
+                CircuitBreaker.decorateSupplier(circuitBreakers.get(endpoint), call));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException | BulkheadFullException ex) {
+            throw new TalonOneUnavailableException(endpoint, ex);
+        }
+    }
+
+    /**
+     * Runs a non-blocking call through the bulkhead, then the circuit breaker of the endpoint.
+     * The bulkhead slot is held until the returned future completes.
+     * @param endpoint the Talon.One endpoint being called
+     * @param call starts the remote call
+     * @return a future completing exceptionally with {@link TalonOneUnavailableException} on rejection
+     */
+    public <T> CompletableFuture<T> executeAsync(TalonOneEndpoint endpoint, Supplier<CompletionStage<T>> call) {
+        Supplier<CompletionStage<T>> guarded = Bulkhead.decorateCompletionStage(bulkheads.get(endpoint),
+                CircuitBreaker.decorateCompletionStage(circuitBreakers.get(endpoint), call));
+        return guarded.get().toCompletableFuture().handle((result, failure) -> {
+            if (failure == null) {
+                return result;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException) {
+                throw new TalonOneUnavailableException(endpoint, cause);
+            }
+            throw failure instanceof CompletionException ce ? ce : new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Client errors (4xx), also when wrapped by the client's error translation, say nothing about the health
+     * of Talon.One; the breaker neither records them as failures nor as successes.
+     */
+    private static boolean isCallerError(Throwable ex) {
+        for (Throwable current = ex; current != null; current = current.getCause()) {
+            if (current instanceof HttpClientErrorException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the current state of the endpoint's circuit
+     */
+    public CircuitBreaker.State state(TalonOneEndpoint endpoint) {
+        return circuitBreakers.get(endpoint).getState();
+    }
+}
@@ -0,0 +1,160 @@
+package com.app.talonone;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * HTTP transport used by {@link TalonOneClient}.
+ * Every {@link TalonOneEndpoint} gets its own bounded, keep-alive connection pool and RestTemplate,
+ * so connections are reused across checkouts and one endpoint cannot exhaust the sockets of another.
+ *
+ * <p>
+ * The pools stay the concurrency limit when callers run on virtual threads. Since httpclient5 5.4 and httpcore5 5.3
+ * (set in the pom; the 5.2 line managed by Boot 3.2 leases under a synchronized method) pool waits use
+ * {@code java.util.concurrent} locks rather than monitors, so a virtual thread waiting for a lease or
+ * a response unmounts instead of pinning its carrier. The bulkheads in {@link TalonOneResilience} default to
+ * the configured pool sizes, so callers beyond the pool capacity are rejected instead of queueing on the pool.
+ * </p>
+ *
+ * <p>
+ * Configuration properties (all optional):
+ * <ul>
+ *     <li>talonone.http.connect-timeout-ms=2000</li>
+ *     <li>talonone.http.read-timeout-ms=5000</li>
+ *     <li>talonone.http.lease-timeout-ms=1000 - how long a caller waits for a free pooled connection</li>
+ *     <li>talonone.http.keep-alive-ms=30000 - upper bound for idle keep-alive, also applied when the server sends none</li>
+ *     <li>talonone.http.pool.&lt;profiles|sessions|loyalty&gt;.max-connections</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Pool metrics are published per endpoint (tag {@code endpoint}): {@code talonone.http.pool.lease} (lease wait time),
+ * {@code talonone.http.pool.leased}, {@code talonone.http.pool.pending}, {@code talonone.http.pool.available},
+ * {@code talonone.http.pool.max}, {@code talonone.http.pool.connections} (tag {@code reused}) and
+ * {@code talonone.http.pool.reuse.ratio}.
+ * Every request is observed as {@code talonone.client.requests}, a timer (and trace span when tracing is set up)
+ * tagged with {@code endpoint}, {@code uri}, {@code method}, {@code status} and {@code outcome}.
+ * </p>
+ */
+@Component
+public class TalonOneTransport implements DisposableBean {
+
+    private final Map<TalonOneEndpoint, RestTemplate> restTemplates = new EnumMap<>(TalonOneEndpoint.class);
+    private final Map<TalonOneEndpoint, CloseableHttpClient> httpClients = new EnumMap<>(TalonOneEndpoint.class);
+
+    public TalonOneTransport(Environment environment,
+                             MeterRegistry meterRegistry,
+                             ObservationRegistry observationRegistry,
+                             @Value("${talonone.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                             @Value("${talonone.http.read-timeout-ms:5000}") long readTimeoutMs,
+                             @Value("${talonone.http.lease-timeout-ms:1000}") long leaseTimeoutMs,
+                             @Value("${talonone.http.keep-alive-ms:30000}") long keepAliveMs) {
+        for (TalonOneEndpoint endpoint : TalonOneEndpoint.values()) {
+            int maxConnections = environment.getProperty(
+                    "talonone.http.pool." + endpoint.key() + ".max-connections",
+                    Integer.class, endpoint.defaultMaxConnections());
+
+            InstrumentedConnectionManager connectionManager = createConnectionManager(endpoint, meterRegistry);
+            // All endpoints live on the same Talon.One host, so the route limit is the endpoint budget
+            connectionManager.setMaxTotal(maxConnections);
+            connectionManager.setDefaultMaxPerRoute(maxConnections);
+            connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                    .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                    .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                    .build());
+
+            TimeValue maxKeepAlive = TimeValue.ofMilliseconds(keepAliveMs);
+            CloseableHttpClient httpClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeoutMs))
+                            .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                            .build())
+                    .setKeepAliveStrategy((response, context) -> {
+                        TimeValue advertised = DefaultConnectionKeepAliveStrategy.INSTANCE
+                                .getKeepAliveDuration(response, context);
+                        return TimeValue.isPositive(advertised) && advertised.compareTo(maxKeepAlive) < 0
+                                ? advertised : maxKeepAlive;
+                    })
+                    .evictExpiredConnections()
+                    .evictIdleConnections(maxKeepAlive)
+                    .build();
+
+            httpClients.put(endpoint, httpClient);
+            RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+            restTemplate.setObservationRegistry(observationRegistry);
+            restTemplate.setObservationConvention(new TalonOneObservationConvention(endpoint));
+            restTemplates.put(endpoint, restTemplate);
+        }
+    }
+
+    /**
+     * Returns the RestTemplate bound to the connection pool of the given endpoint.
+     * @param endpoint the Talon.One endpoint being called
+     * @return the pooled RestTemplate for that endpoint
+     */
+    public RestTemplate restTemplate(TalonOneEndpoint endpoint) {
+        return restTemplates.get(endpoint);
+    }
+
+    private static InstrumentedConnectionManager createConnectionManager(TalonOneEndpoint endpoint,
+                                                                          MeterRegistry meterRegistry) {
+        Tags tags = Tags.of("endpoint", endpoint.key());
+        Timer leaseTimer = Timer.builder("talonone.http.pool.lease")
+                .description("Time spent waiting for a pooled Talon.One connection")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Counter reused = Counter.builder("talonone.http.pool.connections")
+                .tags(tags).tag("reused", "true")
+                .register(meterRegistry);
+        Counter opened = Counter.builder("talonone.http.pool.connections")
+                .tags(tags).tag("reused", "false")
+                .register(meterRegistry);
+
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(leaseTimer, reused, opened);
+        Gauge.builder("talonone.http.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("talonone.http.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("talonone.http.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("talonone.http.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("talonone.http.pool.reuse.ratio", connectionManager, InstrumentedConnectionManager::reuseRatio)
+                .tags(tags).register(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * Closes all pooled connections when the application context shuts down.
+     */
+    @Override
+    public void destroy() throws IOException {
+        for (CloseableHttpClient httpClient : httpClients.values()) {
+            httpClient.close();
+        }
+    }
+}
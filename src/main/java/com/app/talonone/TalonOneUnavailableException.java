@@ -0,0 +1,24 @@
+package com.app.talonone;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown without calling Talon.One when the circuit breaker of the endpoint is open
+ * or its bulkhead has no free slot. Callers can fall back instead of waiting on a degraded API.
+ */
+public class TalonOneUnavailableException extends RestClientException {
+
+    private final TalonOneEndpoint endpoint;
+
+    public TalonOneUnavailableException(TalonOneEndpoint endpoint, Throwable cause) {
+        super("Talon.One " + endpoint.key() + " endpoint unavailable: " + cause.getMessage(), cause);
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @return the endpoint that rejected the call
+     */
+    public TalonOneEndpoint getEndpoint() {
+        return endpoint;
+    }
+}
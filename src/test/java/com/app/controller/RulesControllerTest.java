@@ -0,0 +1,68 @@
+package com.app.controller;
+
+import com.app.config.AdminConfig;
+import com.app.rules.LocalRulesEngine;
+import com.app.service.RewardsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RulesControllerTest {
+
+    private static final String RULESET = """
+            {"version":"v2","rules":[{"code":"TEN-OFF","type":"CART_PERCENTAGE","value":10.00,"priority":1}]}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LocalRulesEngine localRulesEngine;
+
+    @MockBean
+    private RewardsService rewardsService;
+
+    @Test
+    void rulesetIsOnlyReplacedWithTheAdminToken() throws Exception {
+        mockMvc.perform(replace()).andExpect(status().isForbidden());
+        mockMvc.perform(replace().header(AdminConfig.ADMIN_TOKEN_HEADER, "guess")).andExpect(status().isForbidden());
+        assertThat(localRulesEngine.current()).isEmpty();
+
+        // The admin token configured in the test application.properties
+        mockMvc.perform(replace().header(AdminConfig.ADMIN_TOKEN_HEADER, "test-admin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value("v2"));
+        assertThat(localRulesEngine.current()).hasValueSatisfying(ruleset -> assertThat(ruleset.size()).isEqualTo(1));
+    }
+
+    @Test
+    void unauthorizedCallersAreRefusedBeforeTheBodyIsRead() throws Exception {
+        String invalid = "{\"rules\":[{\"code\":\"\"}]}";
+
+        mockMvc.perform(put("/rules").contentType(MediaType.APPLICATION_JSON).content(invalid))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/rules").contentType(MediaType.APPLICATION_JSON).content("{not json"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/rules").contentType(MediaType.TEXT_PLAIN).content(RULESET))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(put("/rules").contentType(MediaType.APPLICATION_JSON).content(invalid)
+                        .header(AdminConfig.ADMIN_TOKEN_HEADER, "test-admin"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static MockHttpServletRequestBuilder replace() {
+        return put("/rules").contentType(MediaType.APPLICATION_JSON).content(RULESET);
+    }
+}
@@ -0,0 +1,94 @@
+package com.app.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private static final int SAMPLES = 100_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void formattedAmountsParseBackToTheSameCents() {
+        Random random = new Random(19);
+        for (int i = 0; i < SAMPLES; i++) {
+            long cents = sample(random);
+            String text = Money.format(cents);
+            assertThat(text).isEqualTo(BigDecimal.valueOf(cents, Money.FRACTION_DIGITS).toPlainString());
+            assertThat(Money.parse(text)).as(text).isEqualTo(cents);
+        }
+    }
+
+    @Test
+    void parsingRoundsHalfUpLikeBigDecimal() {
+        Random random = new Random(20);
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong() / 1_000, random.nextInt(6));
+            String text = amount.toPlainString();
+            assertThat(Money.parse(text)).as(text).isEqualTo(Money.of(amount));
+            assertThat(Money.parse(text))
+                    .isEqualTo(amount.setScale(Money.FRACTION_DIGITS, RoundingMode.HALF_UP).unscaledValue().longValue());
+        }
+    }
+
+    @Test
+    void percentagesRoundHalfUpLikeBigDecimal() {
+        Random random = new Random(21);
+        for (int i = 0; i < SAMPLES; i++) {
+            long cents = random.nextInt() / 10;
+            long basisPoints = random.nextInt(10_001);
+            long expected = BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(basisPoints))
+                    .divide(BigDecimal.valueOf(10_000), 0, RoundingMode.HALF_UP).longValueExact();
+            assertThat(Money.percentage(cents, basisPoints)).as("%d bp of %d", basisPoints, cents).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void amountsRoundTripThroughJson() throws Exception {
+        Random random = new Random(22);
+        for (int i = 0; i < 10_000; i++) {
+            ItemDTO item = ItemDTO.builder().sku("SKU-" + i).name("Item").quantity(1).price(sample(random)).build();
+            String json = objectMapper.writeValueAsString(item);
+            assertThat(objectMapper.readValue(json, ItemDTO.class).getPrice()).as(json).isEqualTo(item.getPrice());
+        }
+        assertThat(objectMapper.readValue("{\"price\":\"12.5\"}", ItemDTO.class).getPrice()).isEqualTo(1_250L);
+        assertThat(objectMapper.readValue("{\"price\":1.2995E1}", ItemDTO.class).getPrice()).isEqualTo(1_300L);
+    }
+
+    @Test
+    void extremesAndInvalidInput() {
+        assertThat(Money.parse(Money.format(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+        assertThat(Money.parse(Money.format(Long.MIN_VALUE + 1))).isEqualTo(Long.MIN_VALUE + 1);
+        assertThat(Money.format(Long.MIN_VALUE)).isEqualTo("-92233720368547758.08");
+        assertThat(Money.parse(".5")).isEqualTo(50L);
+        assertThat(Money.parse("+7")).isEqualTo(700L);
+
+        assertThatThrownBy(() -> Money.parse("92233720368547758.08")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.times(Long.MAX_VALUE / 2, 3)).isInstanceOf(ArithmeticException.class);
+        for (String invalid : new String[]{"", "-", ".", "1.2.3", "12a", "1,5"}) {
+            assertThatThrownBy(() -> Money.parse(invalid)).as(invalid).isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    /**
+     * Mostly everyday prices, with some amounts spread over the whole long range.
+     */
+    private static long sample(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> random.nextInt(100_000);
+            case 1 -> -random.nextInt(100_000);
+            default -> {
+                long cents = random.nextLong();
+                yield cents == Long.MIN_VALUE ? 0 : cents;
+            }
+        };
+    }
+}
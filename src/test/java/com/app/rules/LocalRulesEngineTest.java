@@ -0,0 +1,69 @@
+package com.app.rules;
+
+import com.app.model.CartRequest;
+import com.app.model.DiscountDTO;
+import com.app.model.ItemDTO;
+import com.app.model.PricedCart;
+import com.app.model.RewardsResponse;
+import com.app.model.RuleDTO;
+import com.app.model.RulesetDTO;
+import com.app.service.CartPricer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRulesEngineTest {
+
+    private final LocalRulesEngine engine = new LocalRulesEngine(new SimpleMeterRegistry());
+
+    @Test
+    void discountsApplyToTheServerSubtotalRatherThanTheDeclaredTotal() {
+        engine.load(ruleset(rule("TEN-OFF", RuleDTO.Type.CART_PERCENTAGE, 1_000, 1)));
+
+        CartRequest overstated = cart(1_000_000L);
+        CartRequest priced = cart(null);
+        priced.setPricing(CartPricer.price(priced.getItems()));
+
+        assertThat(engine.evaluate(overstated, null).orElseThrow().getTotalDiscount()).isEqualTo(500L);
+        assertThat(engine.evaluate(priced, null).orElseThrow().getTotalDiscount()).isEqualTo(500L);
+    }
+
+    @Test
+    void pricingComputedByTheServerIsUsedAsIs() {
+        engine.load(ruleset(rule("TEN-OFF", RuleDTO.Type.CART_PERCENTAGE, 1_000, 1)));
+        CartRequest cart = cart(5_000L);
+        cart.setPricing(new PricedCart(8_000L, 1, 1, 0, 0));
+
+        assertThat(engine.evaluate(cart, null).orElseThrow().getTotalDiscount()).isEqualTo(800L);
+    }
+
+    @Test
+    void percentagesAreComputedOnTheFullCartAndCappedAtTheRemainder() {
+        engine.load(ruleset(
+                rule("FORTY-OFF", RuleDTO.Type.CART_FIXED, 4_000, 1),
+                rule("HALF-OFF", RuleDTO.Type.CART_PERCENTAGE, 5_000, 2)));
+
+        RewardsResponse rewards = engine.evaluate(cart(5_000L), null).orElseThrow();
+
+        // Half of the full 50.00 is 25.00, capped at the 10.00 the fixed discount left
+        assertThat(rewards.getTotalDiscount()).isEqualTo(5_000L);
+        assertThat(rewards.getDiscounts()).extracting(DiscountDTO::getAmount)
+                .containsExactly(4_000L, 1_000L);
+    }
+
+    private static CartRequest cart(Long declaredTotal) {
+        ItemDTO item = ItemDTO.builder().sku("SKU-1").name("Mug").quantity(2).price(2_500L).build();
+        return CartRequest.builder().userId(7L).items(List.of(item)).total(declaredTotal).build();
+    }
+
+    private static RuleDTO rule(String code, RuleDTO.Type type, long value, int priority) {
+        return RuleDTO.builder().code(code).type(type).value(value).priority(priority).build();
+    }
+
+    private static RulesetDTO ruleset(RuleDTO... rules) {
+        return RulesetDTO.builder().version("test").rules(List.of(rules)).build();
+    }
+}
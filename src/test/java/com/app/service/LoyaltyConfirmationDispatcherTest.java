@@ -0,0 +1,170 @@
+package com.app.service;
+
+import com.app.config.StatementCounter;
+import com.app.model.LoyaltyConfirmation;
+import com.app.repository.LoyaltyConfirmationRepository;
+import com.app.talonone.TalonOneEndpoint;
+import com.app.talonone.TalonOneUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class LoyaltyConfirmationDispatcherTest {
+
+    @Autowired
+    private LoyaltyConfirmationDispatcher dispatcher;
+
+    @Autowired
+    private LoyaltyConfirmationRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private RewardsService rewardsService;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void confirmsDueEntriesWithTheirIdempotencyKey() {
+        LoyaltyConfirmation entry = repository.save(pending(1L, 0));
+
+        dispatcher.dispatchDue();
+
+        LoyaltyConfirmation confirmed = repository.findById(entry.getId()).orElseThrow();
+        assertThat(confirmed.getStatus()).isEqualTo(LoyaltyConfirmation.Status.CONFIRMED);
+        assertThat(confirmed.getAttempts()).isEqualTo(1);
+        assertThat(confirmed.getConfirmedAt()).isNotNull();
+        verify(rewardsService).confirmLoyalty("7", 2_500L, "order-1");
+    }
+
+    @Test
+    void failedEntriesAreRetriedWithBackoffUntilMaxAttempts() {
+        doThrow(new IllegalStateException("Talon.One returned 503"))
+                .when(rewardsService).confirmLoyalty(anyString(), anyLong(), eq("order-1"));
+        doThrow(new IllegalStateException("Talon.One returned 503"))
+                .when(rewardsService).confirmLoyalty(anyString(), anyLong(), eq("order-2"));
+        LoyaltyConfirmation retried = repository.save(pending(1L, 0));
+        LoyaltyConfirmation lastAttempt = repository.save(pending(2L, 9));
+        LoyaltyConfirmation confirmed = repository.save(pending(3L, 0));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchDue();
+
+        LoyaltyConfirmation afterRetry = repository.findById(retried.getId()).orElseThrow();
+        assertThat(afterRetry.getStatus()).isEqualTo(LoyaltyConfirmation.Status.PENDING);
+        assertThat(afterRetry.getAttempts()).isEqualTo(1);
+        assertThat(afterRetry.getNextAttemptAt()).isAfter(before);
+        assertThat(afterRetry.getLastError()).isEqualTo("Talon.One returned 503");
+        assertThat(repository.findById(lastAttempt.getId()).orElseThrow().getStatus())
+                .isEqualTo(LoyaltyConfirmation.Status.FAILED);
+        assertThat(repository.findById(confirmed.getId()).orElseThrow().getStatus())
+                .isEqualTo(LoyaltyConfirmation.Status.CONFIRMED);
+
+        // Not due again until the backoff has passed
+        dispatcher.dispatchDue();
+        assertThat(repository.findById(retried.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void callsRejectedByAnOpenCircuitDoNotUseUpAttempts() {
+        doThrow(new TalonOneUnavailableException(TalonOneEndpoint.LOYALTY,
+                new IllegalStateException("CircuitBreaker 'talonone-loyalty' is OPEN")))
+                .when(rewardsService).confirmLoyalty(anyString(), anyLong(), eq("order-1"));
+        // One failed call left before giving up
+        LoyaltyConfirmation entry = repository.save(pending(1L, 9));
+
+        // A long outage: many more rejected dispatches than max attempts
+        for (int i = 0; i < 20; i++) {
+            LocalDateTime before = LocalDateTime.now();
+            makeDue(entry.getId());
+            dispatcher.dispatchDue();
+
+            LoyaltyConfirmation deferred = repository.findById(entry.getId()).orElseThrow();
+            assertThat(deferred.getStatus()).isEqualTo(LoyaltyConfirmation.Status.PENDING);
+            assertThat(deferred.getAttempts()).isEqualTo(9);
+            assertThat(deferred.getNextAttemptAt()).isAfter(before);
+            assertThat(deferred.getLastError()).contains("unavailable");
+        }
+
+        doNothing().when(rewardsService).confirmLoyalty(anyString(), anyLong(), eq("order-1"));
+        makeDue(entry.getId());
+        dispatcher.dispatchDue();
+
+        LoyaltyConfirmation confirmed = repository.findById(entry.getId()).orElseThrow();
+        assertThat(confirmed.getStatus()).isEqualTo(LoyaltyConfirmation.Status.CONFIRMED);
+        assertThat(confirmed.getAttempts()).isEqualTo(10);
+    }
+
+    @Test
+    void failedAttemptIsNotRecordedOnceAnotherInstanceHasClaimedTheEntry() {
+        LoyaltyConfirmation entry = repository.save(pending(1L, 2));
+
+        Integer updated = transactionTemplate.execute(status -> repository.recordFailedAttempt(entry.getId(), 1,
+                LoyaltyConfirmation.Status.FAILED, LocalDateTime.now(), "stale"));
+
+        assertThat(updated).isZero();
+        assertThat(repository.findById(entry.getId()).orElseThrow().getStatus())
+                .isEqualTo(LoyaltyConfirmation.Status.PENDING);
+    }
+
+    @Test
+    void outcomesAreWrittenWithoutReadingEachEntryAgain() {
+        assertThat(dispatchCountingStatements(5)).isEqualTo(dispatchCountingStatements(50));
+    }
+
+    private void makeDue(Long id) {
+        LoyaltyConfirmation entry = repository.findById(id).orElseThrow();
+        entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        repository.save(entry);
+    }
+
+    private int dispatchCountingStatements(int entries) {
+        List<LoyaltyConfirmation> batch = new ArrayList<>();
+        for (long orderId = 1; orderId <= entries; orderId++) {
+            batch.add(pending(orderId, 0));
+        }
+        repository.saveAll(batch);
+
+        StatementCounter.start();
+        dispatcher.dispatchDue();
+        int statements = StatementCounter.stop();
+
+        assertThat(repository.countByStatus(LoyaltyConfirmation.Status.CONFIRMED)).isEqualTo(entries);
+        repository.deleteAll();
+        return statements;
+    }
+
+    private static LoyaltyConfirmation pending(long orderId, int attempts) {
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+        return LoyaltyConfirmation.builder()
+                .orderId(orderId)
+                .userId("7")
+                .amount(2_500L)
+                .idempotencyKey("order-" + orderId)
+                .status(LoyaltyConfirmation.Status.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.app.service;
+
+import com.app.config.StatementCounter;
+import com.app.model.BatchOrderResult;
+import com.app.model.RewardsResponse;
+import com.app.model.User;
+import com.app.repository.LoyaltyConfirmationRepository;
+import com.app.repository.OrderRepository;
+import com.app.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class OrderBatchServiceTest {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private LoyaltyConfirmationRepository loyaltyConfirmationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private RewardsService rewardsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().email("ada@example.com").name("Ada").build());
+        when(rewardsService.evaluateCart(any(), any())).thenReturn(RewardsResponse.none());
+    }
+
+    @AfterEach
+    void tearDown() {
+        loyaltyConfirmationRepository.deleteAll();
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void invalidOrdersAreRejectedIndividually() throws IOException {
+        long userId = user.getId();
+        String batch = String.join("\n",
+                order(userId, "{\"sku\":\"SKU-1\",\"name\":\"Mug\",\"quantity\":2,\"price\":12.50}", "25.00"),
+                order(userId, "null", "0"),
+                order(userId, "{\"sku\":\"SKU-1\",\"name\":\"Mug\",\"quantity\":1}", "0"),
+                order(userId, "{\"sku\":\"SKU-1\",\"name\":\"Mug\",\"quantity\":3,\"price\":50000000000000000}", "0"),
+                order(userId, "{\"sku\":\"SKU-9\",\"name\":\"Sticker\",\"quantity\":2000000000,\"price\":0},"
+                        + "{\"sku\":\"SKU-9\",\"name\":\"Sticker\",\"quantity\":2000000000,\"price\":0}", "0"),
+                order(userId + 1, "{\"sku\":\"SKU-1\",\"name\":\"Mug\",\"quantity\":1,\"price\":8.99}", "8.99"));
+
+        List<BatchOrderResult> results = placeOrders(batch);
+
+        assertThat(results).extracting(BatchOrderResult::getStatus)
+                .containsExactly("CREATED", "REJECTED", "REJECTED", "REJECTED", "REJECTED", "REJECTED");
+        assertThat(results.get(1).getError()).contains("items[0]");
+        assertThat(results.get(2).getError()).contains("items[0].price");
+        assertThat(results.get(3).getError()).startsWith("Invalid order");
+        assertThat(results.get(4).getError()).startsWith("Invalid order");
+        assertThat(results.get(5).getError()).contains("User not found");
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(userRepository.findById(userId).orElseThrow().getTotalSpent()).isEqualTo(2_500L);
+    }
+
+    @Test
+    void loyaltyPointsAreRedeemedOnlyOnceWithinABatch() throws IOException {
+        user = userRepository.save(User.builder().email("grace@example.com").name("Grace").loyaltyPoints(1_000).build());
+        when(rewardsService.evaluateCart(any(), any())).thenReturn(RewardsResponse.builder().totalDiscount(600L)
+                .discounts(List.of()).loyaltyUsed(true).loyaltyPointsUsed(600).loyaltyPointsRemaining(400).build());
+        String item = "{\"sku\":\"SKU-1\",\"name\":\"Mug\",\"quantity\":1,\"price\":12.50}";
+
+        List<BatchOrderResult> results = placeOrders(String.join("\n",
+                order(user.getId(), item, "12.50"), order(user.getId(), item, "12.50")));
+
+        assertThat(results).extracting(BatchOrderResult::getStatus).containsExactly("CREATED", "REJECTED");
+        assertThat(results.get(1).getError()).contains("already redeemed");
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getLoyaltyPoints()).isEqualTo(400);
+        assertThat(stored.getTotalOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void ordersOfAChunkAreWrittenWithBatchedStatements() throws IOException {
+        when(rewardsService.evaluateCart(any(), any())).thenReturn(RewardsResponse.builder().totalDiscount(0L)
+                .discounts(List.of()).loyaltyUsed(true).build());
+        String item = "{\"sku\":\"SKU-1\",\"name\":\"Mug\",\"quantity\":1,\"price\":12.50}";
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            lines.add(order(user.getId(), item, "12.50"));
+        }
+
+        StatementCounter.start();
+        List<BatchOrderResult> results = placeOrders(String.join("\n", lines));
+        int statements = StatementCounter.stop();
+
+        assertThat(results).extracting(BatchOrderResult::getStatus).containsOnly("CREATED");
+        assertThat(loyaltyConfirmationRepository.count()).isEqualTo(40);
+        // User lookup, batched order, item and outbox inserts, one user statistics update,
+        // plus at most one sequence increment per table; one statement per row would be 120 inserts
+        assertThat(statements).isLessThanOrEqualTo(8);
+    }
+
+    private List<BatchOrderResult> placeOrders(String batch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderBatchService.placeOrders(new ByteArrayInputStream(batch.getBytes(StandardCharsets.UTF_8)), out);
+        return objectMapper.readerFor(BatchOrderResult.class).<BatchOrderResult>readValues(out.toByteArray()).readAll();
+    }
+
+    private static String order(long userId, String item, String total) {
+        return "{\"userId\":" + userId + ",\"items\":[" + item + "],\"total\":" + total + "}";
+    }
+}
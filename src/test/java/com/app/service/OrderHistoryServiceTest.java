@@ -0,0 +1,108 @@
+package com.app.service;
+
+import com.app.config.StatementCounter;
+import com.app.model.ItemDTO;
+import com.app.model.Order;
+import com.app.model.OrderPageResponse;
+import com.app.model.User;
+import com.app.repository.OrderRepository;
+import com.app.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrderHistoryServiceTest {
+
+    @Autowired
+    private OrderHistoryService orderHistoryService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().email("ada@example.com").name("Ada").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void pagesThroughAllOrdersNewestFirst() {
+        List<Long> placed = placeOrders(5, 2);
+
+        List<Long> read = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderPageResponse page = orderHistoryService.getOrders(user.getId(), cursor, 2);
+            page.getOrders().forEach(order -> {
+                assertThat(order.getItems()).hasSize(2);
+                read.add(order.getId());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        Collections.reverse(placed);
+        assertThat(read).containsExactlyElementsOf(placed);
+    }
+
+    @Test
+    void unknownUserIsRejectedOnEveryPage() {
+        placeOrders(3, 1);
+        String cursor = orderHistoryService.getOrders(user.getId(), null, 1).getNextCursor();
+        userRepository.deleteById(user.getId());
+
+        assertThatThrownBy(() -> orderHistoryService.getOrders(user.getId(), null, 1))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> orderHistoryService.getOrders(user.getId(), cursor, 1))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void pageIsReadWithAConstantNumberOfStatements() {
+        placeOrders(30, 3);
+
+        // User check, page of orders, items of the page
+        assertThat(getOrdersCountingStatements(2)).isEqualTo(3);
+        assertThat(getOrdersCountingStatements(25)).isEqualTo(3);
+    }
+
+    private int getOrdersCountingStatements(int limit) {
+        StatementCounter.start();
+        OrderPageResponse page = orderHistoryService.getOrders(user.getId(), null, limit);
+        int statements = StatementCounter.stop();
+        assertThat(page.getOrders()).hasSize(limit).allSatisfy(order -> assertThat(order.getItems()).hasSize(3));
+        return statements;
+    }
+
+    private List<Long> placeOrders(int orders, int lines) {
+        List<Long> ids = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            List<ItemDTO> items = new ArrayList<>(lines);
+            for (int line = 0; line < lines; line++) {
+                items.add(ItemDTO.builder().sku("SKU-" + line).name("Item " + line).quantity(1).price(899L).build());
+            }
+            ids.add(orderRepository.save(Order.placed(user, items, 899L * lines, 0)).getId());
+        }
+        return ids;
+    }
+}
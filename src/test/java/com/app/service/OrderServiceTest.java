@@ -0,0 +1,247 @@
+package com.app.service;
+
+import com.app.config.StatementCounter;
+import com.app.model.CartRequest;
+import com.app.model.DiscountDTO;
+import com.app.model.ItemDTO;
+import com.app.model.Money;
+import com.app.model.Order;
+import com.app.model.OrderDTO;
+import com.app.model.OrderRequest;
+import com.app.model.OrderResponse;
+import com.app.model.RewardsResponse;
+import com.app.model.RuleDTO;
+import com.app.model.RulesetDTO;
+import com.app.model.User;
+import com.app.repository.LoyaltyConfirmationRepository;
+import com.app.repository.OrderRepository;
+import com.app.repository.UserRepository;
+import com.app.rules.LocalRulesEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class OrderServiceTest {
+
+    private static final int CONCURRENT_ORDERS = 2_000;
+
+    private static final RewardsResponse REWARDS = RewardsResponse.builder()
+            .totalDiscount(100L).discounts(List.of()).loyaltyUsed(true).build();
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private LoyaltyConfirmationRepository loyaltyConfirmationRepository;
+
+    @MockBean
+    private RewardsService rewardsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().email("ada@example.com").name("Ada").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        loyaltyConfirmationRepository.deleteAll();
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rewardsAreEvaluatedOutsideTheTransaction() {
+        AtomicBoolean transactionActive = new AtomicBoolean(true);
+        when(rewardsService.evaluateCart(any(), any())).thenAnswer(call -> {
+            transactionActive.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return REWARDS;
+        });
+
+        orderService.placeOrder(order(2));
+
+        assertThat(transactionActive).isFalse();
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(loyaltyConfirmationRepository.count()).isEqualTo(1);
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getTotalSpent()).isEqualTo(3_299L);
+        verify(rewardsService).invalidateEvaluations(user.getId().toString());
+    }
+
+    @Test
+    void nothingIsWrittenOrInvalidatedWhenTheTransactionRollsBack() {
+        // The user disappears while Talon.One is called
+        when(rewardsService.evaluateCart(any(), any())).thenAnswer(call -> {
+            userRepository.deleteById(user.getId());
+            return REWARDS;
+        });
+
+        assertThatThrownBy(() -> orderService.placeOrder(order(2))).isInstanceOf(RuntimeException.class);
+
+        assertThat(orderRepository.count()).isZero();
+        assertThat(loyaltyConfirmationRepository.count()).isZero();
+        verify(rewardsService, never()).invalidateEvaluations(anyString());
+    }
+
+    @Test
+    void redeemedLoyaltyPointsAreDeductedAndCannotBeRedeemedAgain() {
+        user = userRepository.save(User.builder().email("grace@example.com").name("Grace").loyaltyPoints(1_000).build());
+        RewardsResponse redemption = RewardsResponse.builder().totalDiscount(600L).discounts(List.of())
+                .loyaltyUsed(true).loyaltyPointsUsed(600).loyaltyPointsRemaining(400).build();
+        // Both orders were evaluated against the balance read before either committed
+        when(rewardsService.evaluateCart(any(), any())).thenReturn(redemption);
+
+        orderService.placeOrder(order(2));
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getLoyaltyPoints()).isEqualTo(400);
+
+        assertThatThrownBy(() -> orderService.placeOrder(order(2)))
+                .isInstanceOf(InsufficientLoyaltyPointsException.class);
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getLoyaltyPoints()).isEqualTo(400);
+        assertThat(stored.getTotalOrders()).isEqualTo(1);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(loyaltyConfirmationRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void orderIsPlacedWithAConstantNumberOfStatements() {
+        when(rewardsService.evaluateCart(any(), any())).thenReturn(REWARDS);
+
+        // User lookup, order insert, batched item inserts, user statistics update, outbox insert
+        assertThat(placeOrderCountingStatements(2)).isEqualTo(5);
+        assertThat(placeOrderCountingStatements(20)).isEqualTo(5);
+    }
+
+    @Test
+    void concurrentOrdersOfOneUserAreAllCounted() throws Exception {
+        when(rewardsService.evaluateCart(any(), any())).thenReturn(RewardsResponse.none());
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        List<Future<?>> orders = new ArrayList<>(CONCURRENT_ORDERS);
+        long expectedSpent = 0;
+        try {
+            for (int i = 0; i < CONCURRENT_ORDERS; i++) {
+                OrderRequest request = order(1 + i % 3);
+                expectedSpent += request.getTotal();
+                orders.add(clients.submit(() -> orderService.placeOrder(request)));
+            }
+            for (Future<?> order : orders) {
+                order.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getTotalOrders()).isEqualTo(CONCURRENT_ORDERS);
+        assertThat(stored.getTotalSpent()).isEqualTo(expectedSpent);
+        assertThat(orderRepository.count()).isEqualTo(CONCURRENT_ORDERS);
+    }
+
+    @Test
+    void orderTotalsReconcileWithTheirLinesAndDiscounts() {
+        LocalRulesEngine engine = new LocalRulesEngine(new SimpleMeterRegistry());
+        engine.load(RulesetDTO.builder().version("reconcile").rules(List.of(
+                rule("MUG-15", RuleDTO.Type.SKU_PERCENTAGE, 1_500, "SKU-1", 1),
+                rule("TEA-3", RuleDTO.Type.SKU_FIXED, 300, "SKU-2", 2),
+                rule("CART-12.5", RuleDTO.Type.CART_PERCENTAGE, 1_250, null, 3),
+                rule("CART-20", RuleDTO.Type.CART_FIXED, 2_000, null, 4))).build());
+        when(rewardsService.evaluateCart(any(), any())).thenAnswer(call ->
+                engine.evaluate(call.<CartRequest>getArgument(0), call.getArgument(1)).orElseThrow());
+        Random random = new Random(42);
+
+        for (int n = 0; n < 200; n++) {
+            List<ItemDTO> items = new ArrayList<>();
+            long lineSum = 0;
+            for (int i = 0, lines = 1 + random.nextInt(6); i < lines; i++) {
+                ItemDTO item = ItemDTO.builder().sku("SKU-" + random.nextInt(4)).name("Item " + i)
+                        .quantity(1 + random.nextInt(20)).price((long) random.nextInt(100_000)).build();
+                items.add(item);
+                lineSum += Money.times(item.getPrice(), item.getQuantity());
+            }
+            long subtotal = CartPricer.price(items).subtotal();
+            assertThat(subtotal).isEqualTo(lineSum);
+
+            OrderRequest request = new OrderRequest();
+            request.setUserId(user.getId());
+            request.setItems(items);
+            request.setTotal(subtotal);
+            OrderResponse response = orderService.placeOrder(request);
+
+            OrderDTO placed = response.getOrder();
+            assertThat(placed.getDiscount()).isEqualTo(response.getRewards().getTotalDiscount())
+                    .isEqualTo(response.getRewards().getDiscounts().stream().mapToLong(DiscountDTO::getAmount).sum())
+                    .isBetween(0L, subtotal);
+            assertThat(placed.getTotal() + placed.getDiscount()).isEqualTo(subtotal);
+
+            Order stored = orderRepository.findWithItemsByIdIn(List.of(placed.getId())).get(0);
+            assertThat(stored.getTotal() + stored.getDiscount()).isEqualTo(subtotal);
+            assertThat(stored.getItems().stream()
+                    .mapToLong(item -> Money.times(item.getPrice(), item.getQuantity()))
+                    .sum()).isEqualTo(subtotal);
+        }
+    }
+
+    /**
+     * Fewest statements of five consecutive orders. The order, item and outbox sequences each fetch a new block
+     * of ids when theirs runs out, which at 20 items per order and 50 ids per block happens on at most four of
+     * any five consecutive orders; the other one shows the per-order statements alone.
+     */
+    private int placeOrderCountingStatements(int items) {
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            OrderRequest request = order(items);
+            StatementCounter.start();
+            orderService.placeOrder(request);
+            fewest = Math.min(fewest, StatementCounter.stop());
+        }
+        return fewest;
+    }
+
+    private static RuleDTO rule(String code, RuleDTO.Type type, long value, String sku, int priority) {
+        return RuleDTO.builder().code(code).type(type).value(value).sku(sku).priority(priority).build();
+    }
+
+    private OrderRequest order(int lines) {
+        List<ItemDTO> items = new ArrayList<>(lines);
+        long total = 0;
+        for (int i = 0; i < lines; i++) {
+            long price = i == 0 ? 2_500L : 899L;
+            items.add(ItemDTO.builder().sku("SKU-" + i).name("Item " + i).quantity(1).price(price).build());
+            total += price;
+        }
+        OrderRequest request = new OrderRequest();
+        request.setUserId(user.getId());
+        request.setItems(items);
+        request.setTotal(total);
+        return request;
+    }
+}
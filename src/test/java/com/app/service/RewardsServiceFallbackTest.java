@@ -0,0 +1,233 @@
+package com.app.service;
+
+import com.app.config.ExecutorFactory;
+import com.app.model.CartRequest;
+import com.app.model.RewardsResponse;
+import com.app.model.User;
+import com.app.rules.LocalRulesEngine;
+import com.app.rules.RulesMode;
+import com.app.talonone.TalonOneAsyncClient;
+import com.app.talonone.TalonOneClient;
+import com.app.talonone.TalonOneCodec;
+import com.app.talonone.TalonOneEndpoint;
+import com.app.talonone.TalonOneResilience;
+import com.app.talonone.TalonOneTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives {@link RewardsService} through the real Talon.One clients, transport and resilience against a local
+ * server whose endpoints can be made to fail or hang.
+ */
+class RewardsServiceFallbackTest {
+
+    private static final int MINIMUM_CALLS = 4;
+    private static final byte[] REWARDS = "{\"totalDiscount\":2.50,\"discounts\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private final CountDownLatch sessionReceived = new CountDownLatch(1);
+    private final CountDownLatch releaseSessions = new CountDownLatch(1);
+
+    private volatile int profileStatus = 204;
+    private volatile int sessionStatus = 200;
+    private volatile boolean holdSessions;
+
+    private HttpServer server;
+    private TalonOneTransport transport;
+    private TalonOneResilience resilience;
+    private TalonOneClient client;
+    private TalonOneAsyncClient asyncClient;
+    private ExecutorService talonOneExecutor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/profiles", exchange -> respond(exchange, profileStatus, new byte[0]));
+        server.createContext("/v1/sessions", exchange -> {
+            if (holdSessions) {
+                sessionReceived.countDown();
+                await(releaseSessions);
+            }
+            respond(exchange, sessionStatus, sessionStatus == 200 ? REWARDS : new byte[0]);
+        });
+        server.setExecutor(serverThreads);
+        server.start();
+
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test",
+                Map.of("talonone.resilience.sessions.max-concurrent-calls", 1)));
+        TalonOneCodec codec = new TalonOneCodec(new ObjectMapper());
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        transport = new TalonOneTransport(environment, meterRegistry, ObservationRegistry.NOOP, 1000, 2000, 1000, 30000);
+        resilience = new TalonOneResilience(environment, meterRegistry, 50, 2000, MINIMUM_CALLS, MINIMUM_CALLS, 60);
+        client = new TalonOneClient(transport, resilience, codec);
+        asyncClient = new TalonOneAsyncClient(codec, resilience, new ExecutorFactory(environment), meterRegistry,
+                1000, 2000, 2);
+        for (Object target : new Object[]{client, asyncClient}) {
+            ReflectionTestUtils.setField(target, "baseUrl", baseUrl);
+            ReflectionTestUtils.setField(target, "apiKey", "test");
+        }
+        talonOneExecutor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        releaseSessions.countDown();
+        talonOneExecutor.shutdownNow();
+        asyncClient.destroy();
+        transport.destroy();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void cartIsEvaluatedWithoutDiscountsOnceTheSessionCircuitOpens() {
+        sessionStatus = 503;
+        RewardsService rewardsService = rewardsService(ProfileSyncMode.SKIP_UNCHANGED);
+
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            assertThatThrownBy(() -> rewardsService.evaluateCart(RewardsServiceTest.cart(), RewardsServiceTest.user()))
+                    .isInstanceOf(RestClientException.class);
+        }
+
+        assertThat(resilience.state(TalonOneEndpoint.SESSIONS)).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(rewardsService.evaluateCart(RewardsServiceTest.cart(), RewardsServiceTest.user()))
+                .isEqualTo(RewardsResponse.none());
+        assertThat(rewardsService.evaluateCartAsync(RewardsServiceTest.cart(), RewardsServiceTest.user()).join())
+                .isEqualTo(RewardsResponse.none());
+        assertThat(fallbacks("sessions")).isEqualTo(2);
+    }
+
+    @Test
+    void cartIsEvaluatedWithoutDiscountsWhileTheSessionBulkheadIsFull() throws Exception {
+        holdSessions = true;
+        RewardsService rewardsService = rewardsService(ProfileSyncMode.SKIP_UNCHANGED);
+        CompletableFuture<RewardsResponse> first = CompletableFuture.supplyAsync(
+                () -> rewardsService.evaluateCart(RewardsServiceTest.cart(), RewardsServiceTest.user()));
+        assertThat(sessionReceived.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Another user's cart, so it is not coalesced with the evaluation in flight
+        CartRequest otherCart = RewardsServiceTest.cart();
+        otherCart.setUserId(8L);
+        User otherUser = RewardsServiceTest.user();
+        otherUser.setId(8L);
+        assertThat(rewardsService.evaluateCart(otherCart, otherUser)).isEqualTo(RewardsResponse.none());
+        assertThat(fallbacks("sessions")).isEqualTo(1);
+
+        releaseSessions.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS).getTotalDiscount()).isEqualTo(250L);
+    }
+
+    @Test
+    void bulkheadRejectionsDoNotHideAnOutageFromTheCircuit() throws Exception {
+        sessionStatus = 503;
+        holdSessions = true;
+        RewardsService rewardsService = rewardsService(ProfileSyncMode.SKIP_UNCHANGED);
+        CompletableFuture<RewardsResponse> held = CompletableFuture.supplyAsync(
+                () -> rewardsService.evaluateCart(RewardsServiceTest.cart(), RewardsServiceTest.user()));
+        assertThat(sessionReceived.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Far more rejections than failures: counted as successes they would keep the failure rate below 50%
+        int rejected = 5 * MINIMUM_CALLS;
+        for (long userId = 100; userId < 100 + rejected; userId++) {
+            CartRequest cart = RewardsServiceTest.cart();
+            cart.setUserId(userId);
+            User user = RewardsServiceTest.user();
+            user.setId(userId);
+            assertThat(rewardsService.evaluateCart(cart, user)).isEqualTo(RewardsResponse.none());
+        }
+        releaseSessions.countDown();
+        assertThatThrownBy(() -> held.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(RestClientException.class);
+        for (int i = 1; i < MINIMUM_CALLS; i++) {
+            assertThatThrownBy(() -> rewardsService.evaluateCart(RewardsServiceTest.cart(), RewardsServiceTest.user()))
+                    .isInstanceOf(RestClientException.class);
+        }
+
+        assertThat(resilience.state(TalonOneEndpoint.SESSIONS)).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(fallbacks("sessions")).isEqualTo(rejected);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ProfileSyncMode.class)
+    void failedProfileUpdatesDoNotDiscardTheSessionResult(ProfileSyncMode mode) {
+        profileStatus = 500;
+        RewardsService rewardsService = rewardsService(mode);
+
+        // Enough calls to open the profiles circuit, after which the updates are rejected without a call
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            assertThat(rewardsService.evaluateCart(RewardsServiceTest.cart(), RewardsServiceTest.user())
+                    .getTotalDiscount()).isEqualTo(250L);
+            assertThat(rewardsService.evaluateCartAsync(RewardsServiceTest.cart(), RewardsServiceTest.user()).join()
+                    .getTotalDiscount()).isEqualTo(250L);
+        }
+
+        assertThat(resilience.state(TalonOneEndpoint.PROFILES)).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.counter("rewards.evaluate.profile.failed").count()).isEqualTo(2 * MINIMUM_CALLS);
+        assertThat(fallbacks("profiles")).isZero();
+        assertThat(fallbacks("sessions")).isZero();
+    }
+
+    private RewardsService rewardsService(ProfileSyncMode mode) {
+        // Without the session cache every evaluation reaches Talon.One
+        RewardsService rewardsService = new RewardsService(client, asyncClient,
+                new ProfileSyncService(client, asyncClient, meterRegistry, 1_000, 30),
+                new SessionEvaluationCache(meterRegistry, false, 30, 1024 * 1024),
+                mock(UserService.class), talonOneExecutor, new LocalRulesEngine(meterRegistry),
+                new CartPricer(meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(rewardsService, "profileSyncMode", mode);
+        ReflectionTestUtils.setField(rewardsService, "rulesMode", RulesMode.OFF);
+        return rewardsService;
+    }
+
+    private double fallbacks(String endpoint) {
+        return meterRegistry.counter("rewards.evaluate.fallback", "endpoint", endpoint).count();
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.app.service;
+
+import com.app.model.CartRequest;
+import com.app.model.ItemDTO;
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.model.User;
+import com.app.rules.LocalRulesEngine;
+import com.app.rules.RulesMode;
+import com.app.talonone.TalonOneAsyncClient;
+import com.app.talonone.TalonOneClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RewardsServiceTest {
+
+    private static final RewardsResponse REWARDS = RewardsResponse.builder()
+            .totalDiscount(250L).discounts(List.of()).build();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TalonOneClient talonOneClient = mock(TalonOneClient.class);
+    private final TalonOneAsyncClient talonOneAsyncClient = mock(TalonOneAsyncClient.class);
+    private final UserService userService = mock(UserService.class);
+    private ExecutorService talonOneExecutor;
+
+    @BeforeEach
+    void setUp() {
+        talonOneExecutor = Executors.newFixedThreadPool(2);
+        when(talonOneClient.evaluateSession(any())).thenReturn(REWARDS);
+        when(talonOneAsyncClient.evaluateSession(any())).thenAnswer(call -> CompletableFuture.completedFuture(REWARDS));
+        when(talonOneAsyncClient.updateProfile(anyString(), any())).thenAnswer(call -> CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        talonOneExecutor.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ProfileSyncMode.class)
+    void unknownUserIsEvaluatedWithoutPushingAProfile(ProfileSyncMode mode) {
+        RewardsService rewardsService = rewardsService(mode);
+
+        assertThat(rewardsService.evaluateCart(cart(), null)).isEqualTo(REWARDS);
+        assertThat(rewardsService.evaluateCartAsync(cart(), null).join()).isEqualTo(REWARDS);
+
+        verify(talonOneClient, never()).updateProfile(anyString(), any());
+        verify(talonOneAsyncClient, never()).updateProfile(anyString(), any());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ProfileSyncMode.class)
+    void asyncEvaluationPushesTheStoredUserProfile(ProfileSyncMode mode) {
+        RewardsService rewardsService = rewardsService(mode);
+
+        assertThat(rewardsService.evaluateCartAsync(cart(), user()).join()).isEqualTo(REWARDS);
+
+        verify(talonOneAsyncClient).updateProfile("7", ProfileDTO.fromUser(user()));
+    }
+
+    @Test
+    void asyncEvaluationSkipsUnchangedProfilesLikeTheBlockingPath() {
+        RewardsService rewardsService = rewardsService(ProfileSyncMode.SKIP_UNCHANGED);
+
+        rewardsService.evaluateCart(cart(), user());
+        rewardsService.evaluateCartAsync(cart(), user()).join();
+
+        verify(talonOneClient).updateProfile(eq("7"), any());
+        verify(talonOneAsyncClient, never()).updateProfile(anyString(), any());
+    }
+
+    @Test
+    void asyncEvaluationIsServedFromTheSessionCache() {
+        RewardsService rewardsService = rewardsService(ProfileSyncMode.SKIP_UNCHANGED);
+
+        rewardsService.evaluateCart(cart(), user());
+        rewardsService.evaluateCartAsync(cart(), user()).join();
+        rewardsService.evaluateCartAsync(cart(), user()).join();
+
+        verify(talonOneClient, times(1)).evaluateSession(any(SessionDTO.class));
+        verify(talonOneAsyncClient, never()).evaluateSession(any());
+    }
+
+    @Test
+    void asyncEvaluationUsesTheLocalRulesEngineInLocalMode() {
+        LocalRulesEngine localRulesEngine = mock(LocalRulesEngine.class);
+        when(localRulesEngine.evaluate(any(), any())).thenReturn(java.util.Optional.of(RewardsResponse.none()));
+        RewardsService rewardsService = rewardsService(ProfileSyncMode.SKIP_UNCHANGED, localRulesEngine, RulesMode.LOCAL);
+
+        assertThat(rewardsService.evaluateCartAsync(cart(), user()).join()).isEqualTo(RewardsResponse.none());
+
+        verify(talonOneAsyncClient, never()).evaluateSession(any());
+        verify(talonOneAsyncClient, never()).updateProfile(anyString(), any());
+    }
+
+    private RewardsService rewardsService(ProfileSyncMode mode) {
+        return rewardsService(mode, new LocalRulesEngine(meterRegistry), RulesMode.OFF);
+    }
+
+    private RewardsService rewardsService(ProfileSyncMode mode, LocalRulesEngine localRulesEngine, RulesMode rulesMode) {
+        RewardsService rewardsService = new RewardsService(talonOneClient, talonOneAsyncClient,
+                new ProfileSyncService(talonOneClient, talonOneAsyncClient, meterRegistry, 1_000, 30),
+                new SessionEvaluationCache(meterRegistry, true, 30, 1024 * 1024),
+                userService, talonOneExecutor, localRulesEngine, new CartPricer(meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(rewardsService, "profileSyncMode", mode);
+        ReflectionTestUtils.setField(rewardsService, "rulesMode", rulesMode);
+        return rewardsService;
+    }
+
+    static CartRequest cart() {
+        List<ItemDTO> items = List.of(
+                ItemDTO.builder().sku("SKU-1").name("Mug").quantity(2).price(1_250L).build(),
+                ItemDTO.builder().sku("SKU-2").name("Tea").quantity(1).price(899L).build());
+        return CartRequest.builder().userId(7L).items(items).total(3_399L).build();
+    }
+
+    static User user() {
+        return User.builder()
+                .id(7L)
+                .email("ada@example.com")
+                .name("Ada")
+                .totalOrders(3)
+                .totalSpent(12_500L)
+                .loyaltyPoints(400)
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.app.talonone;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 500;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer<String, String> coalescer = new RequestCoalescer<>("test", meterRegistry);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void simultaneousIdenticalCallsShareOneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> coalescer.execute("user-1", () -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            return "rewards";
+        }), release);
+
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("rewards");
+        }
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(coalescer.inFlight()).isZero();
+        assertThat(meterRegistry.counter("talonone.coalescer.calls", "name", "test", "role", "follower").count())
+                .isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void followersShareTheFailureOfTheUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Talon.One returned 500");
+
+        List<Future<String>> results = runConcurrently(() -> coalescer.execute("user-1", () -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            throw failure;
+        }), release);
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS)).hasCause(failure);
+        }
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void asyncAndBlockingCallersOfTheSameKeyShareOneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = coalescer.executeAsync("user-1", () -> {
+            upstreamCalls.incrementAndGet();
+            return response;
+        });
+        List<CompletableFuture<String>> followers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            followers.add(coalescer.executeAsync("user-1", () -> {
+                upstreamCalls.incrementAndGet();
+                return CompletableFuture.completedFuture("duplicate");
+            }));
+        }
+        Future<String> blocking = callers.submit(() -> coalescer.execute("user-1", () -> {
+            upstreamCalls.incrementAndGet();
+            return "duplicate";
+        }));
+        // A follower completing its copy does not complete the call for the others
+        followers.get(0).complete("cancelled by caller");
+        waitUntilJoined(CALLERS + 2);
+
+        response.complete("rewards");
+
+        assertThat(leader.get(10, TimeUnit.SECONDS)).isEqualTo("rewards");
+        for (CompletableFuture<String> follower : followers.subList(1, followers.size())) {
+            assertThat(follower.get(10, TimeUnit.SECONDS)).isEqualTo("rewards");
+        }
+        assertThat(blocking.get(10, TimeUnit.SECONDS)).isEqualTo("rewards");
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(coalescer.inFlight()).isZero();
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger keys = new AtomicInteger();
+
+        List<Future<String>> results = runConcurrently(() -> {
+            String key = "user-" + keys.incrementAndGet();
+            return coalescer.execute(key, () -> {
+                upstreamCalls.incrementAndGet();
+                await(release);
+                return key;
+            });
+        }, release);
+
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).startsWith("user-");
+        }
+        assertThat(upstreamCalls).hasValue(CALLERS);
+    }
+
+    @Test
+    void keyIsReleasedOnceTheCallCompletes() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        coalescer.execute("user-1", () -> "call " + upstreamCalls.incrementAndGet());
+        coalescer.execute("user-1", () -> "call " + upstreamCalls.incrementAndGet());
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    /**
+     * Starts all callers, waits until every one of them has either become the leader or joined it,
+     * then lets the upstream call complete.
+     */
+    private List<Future<String>> runConcurrently(Callable<String> call, CountDownLatch release)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> {
+                ready.countDown();
+                await(start);
+                return call.call();
+            }));
+        }
+        ready.await(10, TimeUnit.SECONDS);
+        start.countDown();
+        waitUntilJoined(results.size());
+        release.countDown();
+        return results;
+    }
+
+    private void waitUntilJoined(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            double joined = meterRegistry.counter("talonone.coalescer.calls", "name", "test", "role", "leader").count()
+                    + meterRegistry.counter("talonone.coalescer.calls", "name", "test", "role", "follower").count();
+            if (joined >= callers) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
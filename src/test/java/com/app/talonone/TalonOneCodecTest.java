@@ -0,0 +1,141 @@
+package com.app.talonone;
+
+import com.app.model.DiscountDTO;
+import com.app.model.ItemDTO;
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The codec must be interchangeable with the ObjectMapper it replaces on the checkout path.
+ */
+class TalonOneCodecTest {
+
+    private static final int SAMPLES = 2_000;
+    // Quotes, escapes, control characters and non-ASCII text that the generator has to escape or encode
+    private static final String[] TEXTS = {"Mug", "Jane \"JD\" Doe", "back\\slash", "tab\tnew\nline", "Crème brûlée",
+            "日本語", "emoji 🎁", "\u0001", "", null};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TalonOneCodec codec = new TalonOneCodec(objectMapper);
+
+    @Test
+    void sessionsAreWrittenExactlyAsTheObjectMapperWritesThem() throws Exception {
+        Random random = new Random(24);
+        for (int i = 0; i < SAMPLES; i++) {
+            SessionDTO session = SessionDTO.builder()
+                    .integrationId(text(random))
+                    .cartItems(random.nextInt(20) == 0 ? null : items(random))
+                    .cartTotal(amount(random))
+                    .build();
+            assertSameBytes(codec.toBytes((c, out) -> c.writeSession(session, out)), session);
+        }
+    }
+
+    @Test
+    void profilesAreWrittenExactlyAsTheObjectMapperWritesThem() throws Exception {
+        Random random = new Random(25);
+        for (int i = 0; i < SAMPLES; i++) {
+            ProfileDTO profile = ProfileDTO.builder()
+                    .integrationId(String.valueOf(random.nextLong()))
+                    .email(text(random))
+                    .name(text(random))
+                    .totalOrders(random.nextInt())
+                    .totalSpent(amount(random))
+                    .loyaltyPoints(random.nextInt())
+                    .build();
+            assertSameBytes(codec.toBytes((c, out) -> c.writeProfile(profile, out)), profile);
+        }
+    }
+
+    @Test
+    void rewardsWrittenByTheObjectMapperAreReadBackUnchanged() throws Exception {
+        Random random = new Random(26);
+        for (int i = 0; i < SAMPLES; i++) {
+            RewardsResponse rewards = rewards(random);
+            byte[] json = objectMapper.writeValueAsBytes(rewards);
+            assertThat(codec.readRewards(json)).as(new String(json, StandardCharsets.UTF_8)).isEqualTo(rewards);
+            assertThat(codec.readRewards(new ByteArrayInputStream(json))).isEqualTo(rewards);
+        }
+    }
+
+    @Test
+    void unknownFieldsAreSkippedAndEmptyBodiesReadAsNull() throws Exception {
+        String json = """
+                {"effects":[{"type":"setDiscount","props":{"value":5}}],"totalDiscount":"12.5",
+                 "discounts":[{"code":"A","amount":12.5,"campaignId":7},null],"loyaltyUsed":false,"meta":null}""";
+
+        RewardsResponse rewards = codec.readRewards(json.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(rewards.getTotalDiscount()).isEqualTo(1_250L);
+        assertThat(rewards.getDiscounts()).containsExactly(new DiscountDTO("A", null, 1_250L), null);
+        assertThat(codec.readRewards(new byte[0])).isNull();
+        assertThat(codec.readRewards("null".getBytes(StandardCharsets.UTF_8))).isNull();
+        assertThatThrownBy(() -> codec.readRewards("[1]".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(JsonParseException.class);
+    }
+
+    private void assertSameBytes(byte[] written, Object dto) throws Exception {
+        // Bytes, not a String: like the HTTP message converter, both go through the UTF-8 generator,
+        // which escapes surrogate pairs where the Writer-based one does not
+        byte[] expected = objectMapper.writeValueAsBytes(dto);
+        assertThat(new String(written, StandardCharsets.UTF_8)).isEqualTo(new String(expected, StandardCharsets.UTF_8));
+        assertThat(written).isEqualTo(expected);
+    }
+
+    private static List<ItemDTO> items(Random random) {
+        int size = random.nextInt(8);
+        List<ItemDTO> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (random.nextInt(20) == 0) {
+                items.add(null);
+                continue;
+            }
+            items.add(ItemDTO.builder()
+                    .id(random.nextBoolean() ? random.nextLong() : null)
+                    .sku(text(random))
+                    .name(text(random))
+                    .quantity(random.nextInt(10) == 0 ? null : random.nextInt(100))
+                    .price(random.nextInt(10) == 0 ? null : amount(random))
+                    .build());
+        }
+        return items;
+    }
+
+    private static RewardsResponse rewards(Random random) {
+        List<DiscountDTO> discounts = null;
+        if (random.nextInt(10) != 0) {
+            discounts = new ArrayList<>();
+            for (int i = random.nextInt(5); i > 0; i--) {
+                discounts.add(new DiscountDTO(text(random), text(random), amount(random)));
+            }
+        }
+        return RewardsResponse.builder()
+                .totalDiscount(amount(random))
+                .discounts(discounts)
+                .loyaltyUsed(random.nextBoolean())
+                .loyaltyPointsUsed(random.nextInt())
+                .loyaltyPointsRemaining(random.nextInt())
+                .build();
+    }
+
+    private static String text(Random random) {
+        return TEXTS[random.nextInt(TEXTS.length)];
+    }
+
+    private static long amount(Random random) {
+        return random.nextBoolean() ? random.nextInt(1_000_000) : random.nextLong() / 2;
+    }
+}